@@ -66,6 +66,8 @@ public final class GlobalSettings implements PersistentStateComponent<GlobalSett
         serverConfig.setConnectionDetailsFromEnv(this.serverConfig.isConnectionDetailsFromEnv());
         serverConfig.setConnectionRetries(this.serverConfig.getConnectionRetries());
         serverConfig.setConnectionTimeout(this.serverConfig.getConnectionTimeout());
+        serverConfig.setScanConcurrency(this.serverConfig.getScanConcurrency());
+        serverConfig.setScanAllPythonSdks(this.serverConfig.isScanAllPythonSdks());
         GlobalSettings settings = new GlobalSettings();
         settings.serverConfig = serverConfig;
         if (this.serverConfig.isConnectionDetailsFromEnv()) {
@@ -131,6 +133,8 @@ public final class GlobalSettings implements PersistentStateComponent<GlobalSett
             this.serverConfig.setExcludedPaths(serverConfig.getExcludedPaths());
             this.serverConfig.setConnectionRetries(serverConfig.getConnectionRetries());
             this.serverConfig.setConnectionTimeout(serverConfig.getConnectionTimeout());
+            this.serverConfig.setScanConcurrency(serverConfig.getScanConcurrency());
+            this.serverConfig.setScanAllPythonSdks(serverConfig.isScanAllPythonSdks());
             return;
         }
 
@@ -158,6 +162,8 @@ public final class GlobalSettings implements PersistentStateComponent<GlobalSett
             this.serverConfig.setExcludedPaths(serverConfig.getExcludedPaths());
             this.serverConfig.setConnectionRetries(serverConfig.getConnectionRetries());
             this.serverConfig.setConnectionTimeout(serverConfig.getConnectionTimeout());
+            this.serverConfig.setScanConcurrency(serverConfig.getScanConcurrency());
+            this.serverConfig.setScanAllPythonSdks(serverConfig.isScanAllPythonSdks());
             return;
         }
 
@@ -178,6 +184,8 @@ public final class GlobalSettings implements PersistentStateComponent<GlobalSett
         this.serverConfig.setConnectionDetailsFromEnv(serverConfig.isConnectionDetailsFromEnv());
         this.serverConfig.setConnectionRetries(serverConfig.getConnectionRetries());
         this.serverConfig.setConnectionTimeout(serverConfig.getConnectionTimeout());
+        this.serverConfig.setScanConcurrency(serverConfig.getScanConcurrency());
+        this.serverConfig.setScanAllPythonSdks(serverConfig.isScanAllPythonSdks());
         this.serverConfig.setJFrogSettingsCredentialsKey(serverConfig.getJFrogSettingsCredentialsKey());
         this.serverConfig.setXraySettingsCredentialsKey(serverConfig.getXraySettingsCredentialsKey());
     }
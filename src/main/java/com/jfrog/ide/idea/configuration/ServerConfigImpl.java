@@ -30,6 +30,7 @@ import com.intellij.util.xmlb.annotations.Transient;
 import com.jfrog.ide.common.configuration.ServerConfig;
 import com.jfrog.ide.idea.ui.configuration.ConnectionRetriesSpinner;
 import com.jfrog.ide.idea.ui.configuration.ConnectionTimeoutSpinner;
+import com.jfrog.ide.idea.ui.configuration.ScanConcurrencySpinner;
 import org.apache.commons.collections4.CollectionUtils;
 import org.jfrog.build.client.ProxyConfiguration;
 
@@ -86,6 +87,12 @@ public class ServerConfigImpl implements ServerConfig {
     private Integer connectionRetries;
     @Tag
     private Integer connectionTimeout;
+    // Maximum number of scan managers allowed to scan simultaneously
+    @Tag
+    private Integer scanConcurrency;
+    // Scan all Python SDKs configured in the IDE, instead of only the SDKs of the project modules
+    @Tag
+    private boolean scanAllPythonSdks;
     // The subsystem key of the plugin configuration in the PasswordSafe
     @Transient
     private String jfrogSettingsCredentialsKey = JFROG_SETTINGS_KEY;
@@ -107,6 +114,8 @@ public class ServerConfigImpl implements ServerConfig {
         this.connectionDetailsFromEnv = builder.connectionDetailsFromEnv;
         this.connectionRetries = builder.connectionRetries;
         this.connectionTimeout = builder.connectionTimeout;
+        this.scanConcurrency = builder.scanConcurrency;
+        this.scanAllPythonSdks = builder.scanAllPythonSdks;
         this.jfrogSettingsCredentialsKey = builder.jfrogSettingsCredentialsKey;
         this.xraySettingsCredentialsKey = builder.xraySettingsCredentialsKey;
     }
@@ -134,13 +143,16 @@ public class ServerConfigImpl implements ServerConfig {
                 Objects.equals(getExcludedPaths(), other.getExcludedPaths()) &&
                 isConnectionDetailsFromEnv() == other.isConnectionDetailsFromEnv() &&
                 getConnectionRetries() == other.getConnectionRetries() &&
-                getConnectionTimeout() == other.getConnectionTimeout();
+                getConnectionTimeout() == other.getConnectionTimeout() &&
+                getScanConcurrency() == other.getScanConcurrency() &&
+                isScanAllPythonSdks() == other.isScanAllPythonSdks();
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(getUrl(), getXrayUrl(), getArtifactoryUrl(), getPassword(), getUsername(),
-                isConnectionDetailsFromEnv(), getConnectionRetries(), getConnectionTimeout());
+                isConnectionDetailsFromEnv(), getConnectionRetries(), getConnectionTimeout(), getScanConcurrency(),
+                isScanAllPythonSdks());
     }
 
     @Override
@@ -219,6 +231,14 @@ public class ServerConfigImpl implements ServerConfig {
         return defaultIfNull(this.connectionTimeout, ConnectionTimeoutSpinner.RANGE.initial);
     }
 
+    public int getScanConcurrency() {
+        return defaultIfNull(this.scanConcurrency, ScanConcurrencySpinner.RANGE.initial);
+    }
+
+    public boolean isScanAllPythonSdks() {
+        return scanAllPythonSdks;
+    }
+
     public String getJFrogSettingsCredentialsKey() {
         return this.jfrogSettingsCredentialsKey;
     }
@@ -356,6 +376,14 @@ public class ServerConfigImpl implements ServerConfig {
         this.connectionTimeout = connectionTimeout;
     }
 
+    void setScanConcurrency(int scanConcurrency) {
+        this.scanConcurrency = scanConcurrency;
+    }
+
+    void setScanAllPythonSdks(boolean scanAllPythonSdks) {
+        this.scanAllPythonSdks = scanAllPythonSdks;
+    }
+
     public void setJFrogSettingsCredentialsKey(String jfrogSettingsCredentialsKey) {
         this.jfrogSettingsCredentialsKey = jfrogSettingsCredentialsKey;
     }
@@ -416,6 +444,8 @@ public class ServerConfigImpl implements ServerConfig {
         private boolean connectionDetailsFromEnv;
         private int connectionRetries;
         private int connectionTimeout;
+        private Integer scanConcurrency;
+        private boolean scanAllPythonSdks;
 
         public ServerConfigImpl build() {
             return new ServerConfigImpl(this);
@@ -466,6 +496,16 @@ public class ServerConfigImpl implements ServerConfig {
             return this;
         }
 
+        public Builder setScanConcurrency(int scanConcurrency) {
+            this.scanConcurrency = scanConcurrency;
+            return this;
+        }
+
+        public Builder setScanAllPythonSdks(boolean scanAllPythonSdks) {
+            this.scanAllPythonSdks = scanAllPythonSdks;
+            return this;
+        }
+
         public Builder setJFrogSettingsCredentialsKey(String jfrogSettingsCredentialsKey) {
             this.jfrogSettingsCredentialsKey = jfrogSettingsCredentialsKey;
             return this;
@@ -111,11 +111,12 @@ public abstract class AbstractInspection extends LocalInspectionTool implements
      * Single project, multi module - Return the module contains the dependency.
      * Multi project - Return the module containing the dependency within the projects.
      *
-     * @param element     - The Psi element in the package descriptor
-     * @param generalInfo - The general info of the dependency
+     * @param element        - The Psi element in the package descriptor
+     * @param generalInfo    - The general info of the dependency
+     * @param componentIndex - The index of the dependency tree
      * @return Set of modules containing the dependency or null if not found
      */
-    abstract Set<DependencyTree> getModules(PsiElement element, GeneralInfo generalInfo);
+    abstract Set<DependencyTree> getModules(PsiElement element, GeneralInfo generalInfo, ComponentIndex componentIndex);
 
     /**
      * Determine whether to apply the inspection on the Psi element.
@@ -124,23 +125,24 @@ public abstract class AbstractInspection extends LocalInspectionTool implements
      * @return true if and only if the element is a dependency and the plugin is ready to show inspection for it
      */
     boolean isShowInspection(PsiElement element) {
-        Project project = element.getProject();
+        // The cheap checks first - Most of the visited elements are not dependencies
+        VirtualFile editorFile = element.getContainingFile().getVirtualFile();
+        if (editorFile == null || editorFile.getParent() == null || !editorFile.getPath().endsWith(packageDescriptorName)) {
+            return false; // File is not a package descriptor file
+        }
 
+        if (!isDependency(element)) {
+            return false;
+        }
+
+        Project project = element.getProject();
         ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow("JFrog");
         if (toolWindow == null) {
             return false; // Tool window not yet activated
         }
 
-        VirtualFile editorFile = element.getContainingFile().getVirtualFile();
-        if (editorFile == null || editorFile.getParent() == null || !editorFile.getPath().endsWith(packageDescriptorName)) {
-            return false; // File is not a package descriptor file
-        }
-
         ScanManager scanManager = getScanManager(project, editorFile.getParent().getPath());
-        if (scanManager == null) {
-            return false; // Scan manager for this project not yet created
-        }
-        return isDependency(element);
+        return scanManager != null; // Scan manager for this project not yet created
     }
 
     /**
@@ -153,16 +155,31 @@ public abstract class AbstractInspection extends LocalInspectionTool implements
         if (!isShowInspection(element)) {
             return null; // Inspection is not needed for this element
         }
+        ComponentIndex componentIndex = getComponentIndex(element);
+        if (componentIndex == null) {
+            return null; // No scan results
+        }
+        return DependenciesCache.getDependencies(element, componentIndex, () -> matchDependencies(element, componentIndex));
+    }
+
+    /**
+     * Match the element to the dependencies in the dependency tree.
+     *
+     * @param element        - The Psi element in the package descriptor
+     * @param componentIndex - The index of the dependency tree
+     * @return all dependencies in the dependency tree that relevant to the element
+     */
+    private List<DependencyTree> matchDependencies(PsiElement element, ComponentIndex componentIndex) {
         GeneralInfo generalInfo = createGeneralInfo(element);
         if (generalInfo == null) {
             return null; // Creating the general info failed
         }
-        Set<DependencyTree> modules = getModules(element, generalInfo);
+        Set<DependencyTree> modules = getModules(element, generalInfo, componentIndex);
         if (modules == null) {
             return null; // No modules found for this element
         }
         return modules.stream()
-                .map(module -> getModuleDependency(module, generalInfo))
+                .map(module -> getModuleDependency(componentIndex, module, generalInfo))
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
@@ -170,112 +187,67 @@ public abstract class AbstractInspection extends LocalInspectionTool implements
     /**
      * Get the module dependency that matches to the input general info.
      *
-     * @param module      - The dependency tree module
-     * @param generalInfo - The general info
+     * @param componentIndex - The index of the dependency tree
+     * @param module         - The dependency tree module
+     * @param generalInfo    - The general info
      * @return module dependencies that match to the input general info
      */
-    private DependencyTree getModuleDependency(DependencyTree module, GeneralInfo generalInfo) {
-        for (DependencyTree dependency : module.getChildren()) {
-            GeneralInfo childGeneralInfo = dependency.getGeneralInfo();
-            if (childGeneralInfo == null) {
-                childGeneralInfo = new GeneralInfo().componentId(dependency.getUserObject().toString());
-            }
-            if (compareGeneralInfos(generalInfo, childGeneralInfo)) {
-                return dependency;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Search for the node of the project in the dependency tree. If this is a single project, return the root.
-     *
-     * @param root    - The root of the dependency tree
-     * @param project - The project
-     * @return the node of the project in the dependency tree
-     */
-    DependencyTree getProjectNode(DependencyTree root, Project project) {
-        if (root.getGeneralInfo() != null) {
-            return root;
-        }
-        return root.getChildren().stream()
-                .filter(child -> StringUtils.equals((String) child.getUserObject(), project.getName()))
-                .findAny()
-                .orElse(root);
+    private DependencyTree getModuleDependency(ComponentIndex componentIndex, DependencyTree module, GeneralInfo generalInfo) {
+        return componentIndex.getNodeIndex(module).getDependencies(generalInfo.getArtifactId()).stream()
+                .filter(match -> compareGeneralInfos(generalInfo, match.getGeneralInfo()))
+                .map(ComponentIndex.Match::getNode)
+                .findFirst()
+                .orElse(null);
     }
 
     /**
-     * Get the root of the dependency tree of the input project.
+     * Get the index of the dependency tree of the input project.
      *
      * @param element - The Psi element in the package descriptor
-     * @return root of the dependency tree of the input project
+     * @return the index of the dependency tree, or null if there are no scan results
      */
-    DependencyTree getRootDependencyTree(PsiElement element) {
+    ComponentIndex getComponentIndex(PsiElement element) {
         Project project = element.getProject();
         ComponentsTree componentsTree = LocalComponentsTree.getInstance(project);
-        if (componentsTree == null || componentsTree.getModel() == null) {
-            return null;
-        }
-        return (DependencyTree) componentsTree.getModel().getRoot();
-    }
-
-    /**
-     * Return true if and only if the dependency tree node containing the input path.
-     *
-     * @param node - The dependency tree node
-     * @param path - The path to check
-     * @return true if and only if the dependency tree node containing the input path
-     */
-    private boolean isContainingPath(DependencyTree node, String path) {
-        GeneralInfo childGeneralInfo = node.getGeneralInfo();
-        return StringUtils.equals(childGeneralInfo.getPath(), path);
+        return ComponentIndex.getInstance(componentsTree);
     }
 
     /**
      * Get all submodules from the dependencies-tree which are containing the dependency element.
      * Currently in use for Go and npm.
      *
-     * @param root    - The root of the dependency tree
-     * @param element - The Psi element in the package descriptor
+     * @param componentIndex - The index of the dependency tree
+     * @param element        - The Psi element in the package descriptor
      * @return Set of modules containing the dependency or null if not found
      */
-    Set<DependencyTree> collectModules(DependencyTree root, PsiElement element) {
-        // Single project, single module
-        if (root.getGeneralInfo() != null) {
-            return Sets.newHashSet(root);
-        }
-
-        // Multi project
+    Set<DependencyTree> collectModules(ComponentIndex componentIndex, PsiElement element) {
         String path = element.getContainingFile().getVirtualFile().getParent().getPath();
-        for (DependencyTree child : root.getChildren()) {
-            if (isContainingPath(child, path)) {
-                return Sets.newHashSet(child);
-            }
-        }
-        return null;
+        DependencyTree module = componentIndex.getModuleByPath(path);
+        return module != null ? Sets.newHashSet(module) : null;
     }
 
     /**
      * Get all submodules from the dependencies-tree which are containing the dependency element.
      * Currently in use for Gradle and Maven.
      *
-     * @param root        - The root of the dependency tree
-     * @param project     - The project
-     * @param modulesList - List of all relevant modules
-     * @param generalInfo - General info of the dependency
+     * @param componentIndex - The index of the dependency tree
+     * @param project        - The project
+     * @param modulesList    - List of all relevant modules
+     * @param generalInfo    - General info of the dependency
      * @return set of all modules containing the dependency stated in the general info
      */
-    Set<DependencyTree> collectModules(DependencyTree root, Project project, List<?> modulesList, GeneralInfo generalInfo) {
+    Set<DependencyTree> collectModules(ComponentIndex componentIndex, Project project, List<?> modulesList, GeneralInfo generalInfo) {
+        DependencyTree root = componentIndex.getRoot();
         // Single project, single module
         if (modulesList.size() <= 1 && root.getGeneralInfo() != null) {
             return Sets.newHashSet(root);
         }
 
         // Get the node of the project
-        root = getProjectNode(root, project);
+        DependencyTree projectNode = componentIndex.getProjectNode(project.getName());
 
         // Multi modules
-        return collectMultiModules(root, generalInfo);
+        return collectMultiModules(componentIndex, projectNode, generalInfo);
     }
 
     /**
@@ -284,51 +256,28 @@ public abstract class AbstractInspection extends LocalInspectionTool implements
      * 2. The dependency is a direct dependency under the project node
      * 3. The dependency is a level 2 dependency under the project node
      *
+     * @param componentIndex       - The index of the dependency tree
      * @param projectNode          - The project node
      * @param generatedGeneralInfo - General info of the dependency
      * @return the nodes containing the dependency
      */
-    private Set<DependencyTree> collectMultiModules(DependencyTree projectNode, GeneralInfo generatedGeneralInfo) {
+    private Set<DependencyTree> collectMultiModules(ComponentIndex componentIndex, DependencyTree projectNode, GeneralInfo generatedGeneralInfo) {
         Set<DependencyTree> modules = Sets.newHashSet();
-        for (DependencyTree child : projectNode.getChildren()) {
-            Object userObject = child.getUserObject();
-            if (userObject == null) {
-                continue;
-            }
-            String componentId = userObject.toString();
-            if (componentId.contains(":")) {
-                // Check if the dependency is a direct dependency under the project node
-                GeneralInfo generalInfo = new GeneralInfo().componentId(componentId);
-                if (compareGeneralInfos(generatedGeneralInfo, generalInfo)) {
-                    modules.add(projectNode);
-                }
-            } else {
-                // Check if the dependency is a module under the project node
-                if (componentId.equals(generatedGeneralInfo.getArtifactId())) {
-                    modules.add(projectNode);
-                }
-            }
+        ComponentIndex.NodeIndex nodeIndex = componentIndex.getNodeIndex(projectNode);
+        String artifactId = generatedGeneralInfo.getArtifactId();
 
-            // Check if the dependency is a level 2 dependency under the project node
-            if (isParent(child, generatedGeneralInfo)) {
-                modules.add(child);
-            }
+        // Check if the dependency is a module or a direct dependency under the project node
+        if (nodeIndex.containsModule(artifactId) || nodeIndex.getComponentIds(artifactId).stream()
+                .anyMatch(generalInfo -> compareGeneralInfos(generatedGeneralInfo, generalInfo))) {
+            modules.add(projectNode);
         }
-        return modules;
-    }
 
-    /**
-     * Return true iff the node is a direct parent of the dependency.
-     *
-     * @param node        - The project node
-     * @param generalInfo - General info of the dependency
-     * @return true iff the node is a direct parent of the dependency
-     */
-    private boolean isParent(DependencyTree node, GeneralInfo generalInfo) {
-        return node.getChildren().stream()
-                .map(DependencyTree::getGeneralInfo)
-                .filter(Objects::nonNull)
-                .anyMatch(childGeneralInfo -> compareGeneralInfos(generalInfo, childGeneralInfo));
+        // Check if the dependency is a level 2 dependency under the project node
+        nodeIndex.getParents(artifactId).stream()
+                .filter(match -> compareGeneralInfos(generatedGeneralInfo, match.getGeneralInfo()))
+                .map(ComponentIndex.Match::getNode)
+                .forEach(modules::add);
+        return modules;
     }
 
     /**
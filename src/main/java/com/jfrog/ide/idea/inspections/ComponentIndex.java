@@ -0,0 +1,219 @@
+package com.jfrog.ide.idea.inspections;
+
+import com.jfrog.ide.idea.ui.ComponentsTree;
+import org.jfrog.build.extractor.scan.DependencyTree;
+import org.jfrog.build.extractor.scan.GeneralInfo;
+
+import javax.swing.tree.TreeModel;
+import java.util.*;
+
+/**
+ * Immutable index of the dependency tree displayed in the components tree, used by the inspections and annotations
+ * to find the modules and dependencies of a descriptor element without walking the tree.
+ * An index is built once for each published tree model, on the first lookup, and shared by all inspections.
+ */
+class ComponentIndex {
+    // The components trees create a new tree model whenever scan results are published or filters are applied
+    private static final Map<TreeModel, ComponentIndex> indexes = Collections.synchronizedMap(new WeakHashMap<>());
+    // Depth of the nodes which may be modules - The root, the projects and the modules or workspaces of the projects
+    private static final int MAX_MODULE_DEPTH = 2;
+
+    private final DependencyTree root;
+    // Path to the project, module or workspace node
+    private final Map<String, DependencyTree> modulesByPath = new HashMap<>();
+    // Project name to the project node
+    private final Map<String, DependencyTree> projectsByName = new HashMap<>();
+    private final Map<DependencyTree, NodeIndex> nodeIndexes = new IdentityHashMap<>();
+
+    /**
+     * Get the index of the tree currently displayed in the components tree.
+     *
+     * @param componentsTree - The components tree
+     * @return the index, or null if the components tree is empty.
+     */
+    static ComponentIndex getInstance(ComponentsTree componentsTree) {
+        if (componentsTree == null) {
+            return null;
+        }
+        TreeModel model = componentsTree.getModel();
+        if (model == null || model.getRoot() == null) {
+            return null;
+        }
+        return indexes.computeIfAbsent(model, treeModel -> new ComponentIndex((DependencyTree) treeModel.getRoot()));
+    }
+
+    ComponentIndex(DependencyTree root) {
+        this.root = root;
+        if (root.getGeneralInfo() != null) {
+            // Single project - The workspaces are the children with a path
+            indexPaths(root);
+        } else {
+            // Multi project
+            for (DependencyTree project : root.getChildren()) {
+                GeneralInfo generalInfo = project.getGeneralInfo();
+                if (generalInfo != null) {
+                    modulesByPath.putIfAbsent(generalInfo.getPath(), project);
+                }
+                indexPaths(project);
+                if (project.getUserObject() != null) {
+                    projectsByName.putIfAbsent(project.getUserObject().toString(), project);
+                }
+            }
+        }
+        indexNodes(root, 0);
+    }
+
+    private void indexPaths(DependencyTree project) {
+        for (DependencyTree child : project.getChildren()) {
+            GeneralInfo generalInfo = child.getGeneralInfo();
+            if (generalInfo != null) {
+                modulesByPath.putIfAbsent(generalInfo.getPath(), child);
+            }
+        }
+    }
+
+    private void indexNodes(DependencyTree node, int depth) {
+        nodeIndexes.put(node, new NodeIndex(node));
+        if (depth < MAX_MODULE_DEPTH) {
+            node.getChildren().forEach(child -> indexNodes(child, depth + 1));
+        }
+    }
+
+    DependencyTree getRoot() {
+        return root;
+    }
+
+    /**
+     * Get the module of a descriptor by the descriptor directory. Used for Go and npm.
+     *
+     * @param path - The descriptor directory
+     * @return the module node. In a single project, the project node if no workspace matches the path.
+     */
+    DependencyTree getModuleByPath(String path) {
+        DependencyTree module = modulesByPath.get(path);
+        if (module == null && root.getGeneralInfo() != null) {
+            return root;
+        }
+        return module;
+    }
+
+    /**
+     * Get the node of the project. If this is a single project or the project was not found, return the root.
+     *
+     * @param projectName - The project name
+     * @return the node of the project.
+     */
+    DependencyTree getProjectNode(String projectName) {
+        if (root.getGeneralInfo() != null) {
+            return root;
+        }
+        return projectsByName.getOrDefault(projectName, root);
+    }
+
+    /**
+     * Get the index of the children of a node.
+     *
+     * @param node - A node in the tree
+     * @return the index of the children of the node.
+     */
+    NodeIndex getNodeIndex(DependencyTree node) {
+        NodeIndex nodeIndex = nodeIndexes.get(node);
+        // Nodes deeper than the modules are never expected here
+        return nodeIndex != null ? nodeIndex : new NodeIndex(node);
+    }
+
+    /**
+     * Index of the children and grandchildren of a node, by artifact ID.
+     */
+    static class NodeIndex {
+        // Children by the artifact ID of their general info, or of their component ID if they have no general info
+        private final Map<String, List<Match>> dependencies = new HashMap<>();
+        // Children named by a component ID, by the artifact ID of the component ID
+        private final Map<String, List<GeneralInfo>> componentIds = new HashMap<>();
+        // Names of the children which are not named by a component ID
+        private final Set<String> moduleNames = new HashSet<>();
+        // Grandchildren with a general info by their artifact ID, matched with their parent
+        private final Map<String, List<Match>> parents = new HashMap<>();
+
+        private NodeIndex(DependencyTree node) {
+            for (DependencyTree child : node.getChildren()) {
+                Object userObject = child.getUserObject();
+                GeneralInfo generalInfo = child.getGeneralInfo();
+                if (generalInfo == null && userObject != null) {
+                    generalInfo = new GeneralInfo().componentId(userObject.toString());
+                }
+                if (generalInfo != null) {
+                    add(dependencies, generalInfo.getArtifactId(), new Match(generalInfo, child));
+                }
+                if (userObject != null) {
+                    String componentId = userObject.toString();
+                    if (componentId.contains(":")) {
+                        GeneralInfo componentIdInfo = new GeneralInfo().componentId(componentId);
+                        add(componentIds, componentIdInfo.getArtifactId(), componentIdInfo);
+                    } else {
+                        moduleNames.add(componentId);
+                    }
+                }
+                for (DependencyTree grandchild : child.getChildren()) {
+                    GeneralInfo grandchildInfo = grandchild.getGeneralInfo();
+                    if (grandchildInfo != null) {
+                        add(parents, grandchildInfo.getArtifactId(), new Match(grandchildInfo, child));
+                    }
+                }
+            }
+        }
+
+        private static <T> void add(Map<String, List<T>> map, String key, T value) {
+            map.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+
+        /**
+         * @return the children with the artifact ID, ordered as in the tree.
+         */
+        List<Match> getDependencies(String artifactId) {
+            return dependencies.getOrDefault(artifactId, Collections.emptyList());
+        }
+
+        /**
+         * @return the general infos of the children named by a component ID with the artifact ID.
+         */
+        List<GeneralInfo> getComponentIds(String artifactId) {
+            return componentIds.getOrDefault(artifactId, Collections.emptyList());
+        }
+
+        /**
+         * @return true if a child which is not named by a component ID is named by the input name.
+         */
+        boolean containsModule(String name) {
+            return moduleNames.contains(name);
+        }
+
+        /**
+         * @return the grandchildren with the artifact ID, matched with the children containing them.
+         */
+        List<Match> getParents(String artifactId) {
+            return parents.getOrDefault(artifactId, Collections.emptyList());
+        }
+    }
+
+    /**
+     * A node and the general info it was indexed by.
+     */
+    static class Match {
+        private final GeneralInfo generalInfo;
+        private final DependencyTree node;
+
+        private Match(GeneralInfo generalInfo, DependencyTree node) {
+            this.generalInfo = generalInfo;
+            this.node = node;
+        }
+
+        GeneralInfo getGeneralInfo() {
+            return generalInfo;
+        }
+
+        DependencyTree getNode() {
+            return node;
+        }
+    }
+}
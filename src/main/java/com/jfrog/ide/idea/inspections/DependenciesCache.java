@@ -0,0 +1,71 @@
+package com.jfrog.ide.idea.inspections;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jfrog.build.extractor.scan.DependencyTree;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the dependencies matched to the Psi elements of a package descriptor.
+ * The annotator, the local inspection and the inspections run after a scan visit the same elements, and share the
+ * matches through this cache. The cache of a file is dropped when the file is modified, and when a new dependency
+ * tree is published or filtered.
+ */
+class DependenciesCache {
+    // The index of the dependency tree the matches were computed for
+    private final ComponentIndex componentIndex;
+    private final Map<PsiElement, List<DependencyTree>> dependencies = new ConcurrentHashMap<>();
+
+    private DependenciesCache(ComponentIndex componentIndex) {
+        this.componentIndex = componentIndex;
+    }
+
+    /**
+     * Get the dependencies matched to the Psi element, or compute and cache them.
+     *
+     * @param element        - The Psi element in the package descriptor
+     * @param componentIndex - The index of the current dependency tree
+     * @param supplier       - Computes the dependencies of the element. May return null.
+     * @return the dependencies of the element, or an empty list if none matched.
+     */
+    static List<DependencyTree> getDependencies(PsiElement element, ComponentIndex componentIndex, Supplier<List<DependencyTree>> supplier) {
+        PsiFile file = element.getContainingFile();
+        if (file == null) {
+            return supplier.get();
+        }
+        return getInstance(file, componentIndex).dependencies.computeIfAbsent(element, key -> {
+            List<DependencyTree> dependencies = supplier.get();
+            return dependencies != null ? dependencies : Collections.emptyList();
+        });
+    }
+
+    private static DependenciesCache getInstance(PsiFile file, ComponentIndex componentIndex) {
+        // Holds the cache of the latest dependency tree. Dropped on any change in the file.
+        CacheHolder holder = CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(new CacheHolder(), file));
+        return holder.get(componentIndex);
+    }
+
+    private static class CacheHolder {
+        private volatile DependenciesCache cache;
+
+        private DependenciesCache get(ComponentIndex componentIndex) {
+            DependenciesCache current = cache;
+            if (current != null && current.componentIndex == componentIndex) {
+                return current;
+            }
+            synchronized (this) {
+                if (cache == null || cache.componentIndex != componentIndex) {
+                    cache = new DependenciesCache(componentIndex);
+                }
+                return cache;
+            }
+        }
+    }
+}
@@ -67,12 +67,8 @@ public class GoInspection extends AbstractInspection {
     }
 
     @Override
-    Set<DependencyTree> getModules(PsiElement element, GeneralInfo generalInfo) {
-        DependencyTree root = getRootDependencyTree(element);
-        if (root == null) {
-            return null;
-        }
-        return collectModules(root, element);
+    Set<DependencyTree> getModules(PsiElement element, GeneralInfo generalInfo, ComponentIndex componentIndex) {
+        return collectModules(componentIndex, element);
     }
 
     @Override
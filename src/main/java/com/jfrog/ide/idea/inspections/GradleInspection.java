@@ -33,16 +33,15 @@ public abstract class GradleInspection extends AbstractInspection {
     }
 
     @Override
-    Set<DependencyTree> getModules(PsiElement element, GeneralInfo generalInfo) {
+    Set<DependencyTree> getModules(PsiElement element, GeneralInfo generalInfo, ComponentIndex componentIndex) {
         Project project = element.getProject();
-        DependencyTree root = getRootDependencyTree(element);
         List<String> gradleModules = getGradleModules(project);
-        if (root == null || gradleModules == null) {
+        if (gradleModules == null) {
             return null;
         }
 
         // Collect the modules containing the dependency
-        return collectModules(root, project, gradleModules, generalInfo);
+        return collectModules(componentIndex, project, gradleModules, generalInfo);
     }
 
     /**
@@ -94,15 +94,14 @@ public class MavenInspection extends AbstractInspection {
     }
 
     @Override
-    Set<DependencyTree> getModules(PsiElement element, GeneralInfo generalInfo) {
+    Set<DependencyTree> getModules(PsiElement element, GeneralInfo generalInfo, ComponentIndex componentIndex) {
         Project project = element.getProject();
-        DependencyTree root = getRootDependencyTree(element);
         MavenProjectsManager mavenProjectsManager = MavenProjectsManager.getInstance(project);
-        if (root == null || mavenProjectsManager == null) {
+        if (mavenProjectsManager == null) {
             return null;
         }
 
         // Search for the relevant module
-        return collectModules(root, project, mavenProjectsManager.getProjects(), generalInfo);
+        return collectModules(componentIndex, project, mavenProjectsManager.getProjects(), generalInfo);
     }
 }
@@ -7,6 +7,7 @@ import com.intellij.lang.annotation.AnnotationHolder;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
+import com.jfrog.ide.idea.scan.NpmScanManager;
 import com.jfrog.ide.idea.scan.ScanManager;
 import com.jfrog.ide.idea.scan.ScanManagersFactory;
 import org.apache.commons.lang3.StringUtils;
@@ -14,6 +15,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jfrog.build.extractor.scan.DependencyTree;
 import org.jfrog.build.extractor.scan.GeneralInfo;
 
+import java.nio.file.Paths;
 import java.util.Set;
 
 /**
@@ -59,18 +61,15 @@ public class NpmInspection extends AbstractInspection {
     @Override
     ScanManager getScanManager(Project project, String path) {
         return ScanManagersFactory.getScanManagers(project).stream()
-                .filter(manager -> StringUtils.equals(manager.getProjectPath(), path))
+                .filter(NpmScanManager.class::isInstance)
+                .filter(manager -> manager.getProjectPaths().contains(Paths.get(path)))
                 .findAny()
                 .orElse(null);
     }
 
     @Override
-    Set<DependencyTree> getModules(PsiElement element, GeneralInfo generalInfo) {
-        DependencyTree root = getRootDependencyTree(element);
-        if (root == null) {
-            return null;
-        }
-        return collectModules(root, element);
+    Set<DependencyTree> getModules(PsiElement element, GeneralInfo generalInfo, ComponentIndex componentIndex) {
+        return collectModules(componentIndex, element);
     }
 
     @Override
@@ -10,10 +10,9 @@ import com.intellij.psi.PsiFile;
 import org.jetbrains.annotations.NotNull;
 import org.jfrog.build.extractor.scan.DependencyTree;
 
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Created by Bar Belity on 27/04/2020.
@@ -21,7 +20,8 @@ import java.util.Set;
  */
 public class NavigationService {
 
-    private final Map<DependencyTree, Set<NavigationTarget>> navigationMap = Maps.newHashMap();
+    // Updated concurrently by the inspections of the project descriptors
+    private final Map<DependencyTree, Set<NavigationTarget>> navigationMap = Maps.newConcurrentMap();
 
     public static NavigationService getInstance(@NotNull Project project) {
         return ServiceManager.getService(project, NavigationService.class);
@@ -49,13 +49,29 @@ public class NavigationService {
             return;
         }
         NavigationTarget navigationTarget = new NavigationTarget(navigationTargetElement, document.getLineNumber(navigationTargetElement.getTextOffset()));
-        Set<NavigationTarget> navigationTargets = navigationMap.get(treeNode);
-        if (navigationTargets == null) {
-            navigationTargets = new HashSet<>(Collections.singletonList(navigationTarget));
-            navigationMap.put(treeNode, navigationTargets);
-            return;
+        navigationMap.computeIfAbsent(treeNode, node -> ConcurrentHashMap.newKeySet()).add(navigationTarget);
+    }
+
+    /**
+     * Move the navigation targets of a node to another node, such as the matching node in a newly published tree.
+     *
+     * @param source The tree-node to move the navigation from.
+     * @param target The tree-node to move the navigation to.
+     */
+    public void moveNavigation(DependencyTree source, DependencyTree target) {
+        Set<NavigationTarget> navigationTargets = navigationMap.remove(source);
+        if (navigationTargets != null) {
+            navigationMap.computeIfAbsent(target, node -> ConcurrentHashMap.newKeySet()).addAll(navigationTargets);
         }
-        navigationTargets.add(navigationTarget);
+    }
+
+    /**
+     * Remove the navigation targets of a node.
+     *
+     * @param treeNode The tree-node to remove its navigation.
+     */
+    public void removeNavigation(DependencyTree treeNode) {
+        navigationMap.remove(treeNode);
     }
 
     /**
@@ -0,0 +1,194 @@
+package com.jfrog.ide.idea.scan;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.jfrog.build.extractor.scan.DependencyTree;
+import org.jfrog.build.extractor.scan.License;
+import org.jfrog.build.extractor.scan.Scope;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Structural diff between the dependency tree of the previous scan and a newly built dependency tree.
+ * Nodes are matched by their component ID and scopes under matching parents. Matched nodes take the Xray info from
+ * the previous tree, so that only the unmatched subtrees should be scanned by Xray.
+ */
+class DependencyTreeDiff {
+
+    /**
+     * Copy the Xray info of the previous tree to the matching nodes in the current tree.
+     *
+     * @param previous - The dependency tree of the previous scan, including Xray info
+     * @param current  - The newly built dependency tree
+     * @return the roots of the subtrees in the current tree without a matching node in the previous tree.
+     */
+    static List<DependencyTree> reuseXrayInfo(DependencyTree previous, DependencyTree current) {
+        List<DependencyTree> changedSubtrees = Lists.newArrayList();
+        reuseChildrenXrayInfo(previous, current, changedSubtrees);
+        return changedSubtrees;
+    }
+
+    private static void reuseChildrenXrayInfo(DependencyTree previous, DependencyTree current, List<DependencyTree> changedSubtrees) {
+        if (current.isLeaf()) {
+            return;
+        }
+        Map<String, DependencyTree> previousChildren = Maps.newHashMap();
+        for (DependencyTree previousChild : previous.getChildren()) {
+            previousChildren.putIfAbsent(getNodeKey(previousChild), previousChild);
+        }
+        for (DependencyTree child : current.getChildren()) {
+            DependencyTree previousChild = previousChildren.get(getNodeKey(child));
+            if (previousChild == null) {
+                changedSubtrees.add(child);
+                continue;
+            }
+            copyNodeXrayInfo(previousChild, child);
+            reuseChildrenXrayInfo(previousChild, child, changedSubtrees);
+        }
+    }
+
+    /**
+     * Deep copy a dependency tree, including its Xray info.
+     * The copy doesn't share any mutable state with the source tree.
+     *
+     * @param node - The root of the tree to copy
+     * @return a copy of the tree.
+     */
+    static DependencyTree copyTree(DependencyTree node) {
+        DependencyTree copy = new DependencyTree(node.getUserObject());
+        copy.setGeneralInfo(node.getGeneralInfo());
+        copy.setScopes(Sets.newHashSet(node.getScopes()));
+        copyNodeXrayInfo(node, copy);
+        for (DependencyTree child : node.getChildren()) {
+            copy.add(copyTree(child));
+        }
+        return copy;
+    }
+
+    /**
+     * Copy the Xray info from a tree to another tree with an identical structure.
+     *
+     * @param source - The tree to copy the Xray info from
+     * @param target - The tree to copy the Xray info to
+     */
+    static void copyXrayInfo(DependencyTree source, DependencyTree target) {
+        copyNodeXrayInfo(source, target);
+        List<DependencyTree> sourceChildren = source.getChildren();
+        List<DependencyTree> targetChildren = target.getChildren();
+        for (int i = 0; i < sourceChildren.size(); i++) {
+            copyXrayInfo(sourceChildren.get(i), targetChildren.get(i));
+        }
+    }
+
+    private static void copyNodeXrayInfo(DependencyTree source, DependencyTree target) {
+        target.setIssues(Sets.newHashSet(source.getIssues()));
+        target.setLicenses(Sets.newHashSet(source.getLicenses()));
+    }
+
+    /**
+     * Compute a fingerprint of the content of a subtree, as shown by the inspections and the annotations - The
+     * component IDs, scopes, issues and licenses of the nodes. Equal subtrees have equal fingerprints.
+     *
+     * @param node     - The root of the subtree
+     * @param excluded - Subtrees under the root to skip, such as the subtrees of other project descriptors
+     * @return the fingerprint of the subtree.
+     */
+    static long fingerprint(DependencyTree node, Set<DependencyTree> excluded) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        putNode(hasher, node, excluded);
+        return hasher.hash().asLong();
+    }
+
+    private static void putNode(Hasher hasher, DependencyTree node, Set<DependencyTree> excluded) {
+        putString(hasher, getNodeKey(node));
+        node.getIssues().stream()
+                .map(issue -> issue.getSeverity() + "|" + issue.getComponent() + "|" + issue.getSummary())
+                .sorted()
+                .forEach(issue -> putString(hasher, issue));
+        node.getLicenses().stream()
+                .map(License::getName)
+                .filter(Objects::nonNull)
+                .sorted()
+                .forEach(license -> putString(hasher, license));
+        for (DependencyTree child : node.getChildren()) {
+            if (excluded.contains(child)) {
+                continue;
+            }
+            hasher.putChar('(');
+            putNode(hasher, child, excluded);
+            hasher.putChar(')');
+        }
+    }
+
+    private static void putString(Hasher hasher, String value) {
+        hasher.putUnencodedChars(value).putChar('\0');
+    }
+
+    /**
+     * Match the nodes of a subtree to the nodes of an equal subtree, such as the subtree of a project descriptor before
+     * and after the dependency tree was published again. The children are matched by their position, skipping the
+     * excluded subtrees. Nodes whose keys differ are not matched, nor their descendants.
+     *
+     * @param previous         - The previous subtree
+     * @param previousExcluded - Subtrees under the previous root to skip
+     * @param current          - The current subtree
+     * @param currentExcluded  - Subtrees under the current root to skip
+     * @param consumer         - Accepts each previous node with its matching current node
+     */
+    static void matchNodes(DependencyTree previous, Set<DependencyTree> previousExcluded, DependencyTree current,
+                           Set<DependencyTree> currentExcluded, BiConsumer<DependencyTree, DependencyTree> consumer) {
+        if (!getNodeKey(previous).equals(getNodeKey(current))) {
+            return;
+        }
+        consumer.accept(previous, current);
+        List<DependencyTree> previousChildren = getIncludedChildren(previous, previousExcluded);
+        List<DependencyTree> currentChildren = getIncludedChildren(current, currentExcluded);
+        for (int i = 0; i < Math.min(previousChildren.size(), currentChildren.size()); i++) {
+            matchNodes(previousChildren.get(i), previousExcluded, currentChildren.get(i), currentExcluded, consumer);
+        }
+    }
+
+    /**
+     * Visit the nodes of a subtree, skipping the excluded subtrees.
+     *
+     * @param node     - The root of the subtree
+     * @param excluded - Subtrees under the root to skip
+     * @param consumer - Accepts each node
+     */
+    static void forEachNode(DependencyTree node, Set<DependencyTree> excluded, Consumer<DependencyTree> consumer) {
+        consumer.accept(node);
+        for (DependencyTree child : getIncludedChildren(node, excluded)) {
+            forEachNode(child, excluded, consumer);
+        }
+    }
+
+    private static List<DependencyTree> getIncludedChildren(DependencyTree node, Set<DependencyTree> excluded) {
+        return node.getChildren().stream()
+                .filter(child -> !excluded.contains(child))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the key of the node for matching between the trees. The key is composed of the component ID and the scopes.
+     *
+     * @param node - The dependency tree node
+     * @return the key of the node.
+     */
+    static String getNodeKey(DependencyTree node) {
+        String scopes = node.getScopes().stream()
+                .map(Scope::getName)
+                .filter(Objects::nonNull)
+                .sorted()
+                .collect(Collectors.joining(","));
+        return node.getUserObject() + "|" + scopes;
+    }
+}
@@ -0,0 +1,238 @@
+package com.jfrog.ide.idea.scan;
+
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.*;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of the directories containing npm, Gradle and Go descriptors under the project paths.
+ * The project paths are walked once, and then the index is kept current by the VFS events.
+ * Changes the VFS is not aware of, such as files created outside the IDE in directories the VFS never loaded, are
+ * found after the index is invalidated.
+ * The VFS events are only queued by the listener, and applied on the next query, so that the EDT never walks the file system.
+ */
+class DescriptorIndex implements BulkFileListener {
+
+    enum DescriptorType {
+        NPM("package.json"),
+        GRADLE("build.gradle", "build.gradle.kts"),
+        GO("go.mod");
+
+        private final String[] fileNames;
+
+        DescriptorType(String... fileNames) {
+            this.fileNames = fileNames;
+        }
+    }
+
+    // Descriptor type to the directories containing the descriptor. Guarded by 'this'.
+    private final Map<DescriptorType, Set<Path>> descriptorDirs = new EnumMap<>(DescriptorType.class);
+    // Walked paths. Guarded by 'this'.
+    private final Set<Path> indexedPaths = new HashSet<>();
+    // Paths added or removed since the last query
+    private final Queue<PathChange> pendingChanges = new ConcurrentLinkedQueue<>();
+    private String excludedPaths;
+    private PathMatcher exclusions;
+
+    DescriptorIndex() {
+        for (DescriptorType type : DescriptorType.values()) {
+            descriptorDirs.put(type, new HashSet<>());
+        }
+    }
+
+    /**
+     * Get the directories containing the input descriptor type under the input paths.
+     * Paths which were not walked yet are walked.
+     *
+     * @param paths         - The project paths
+     * @param excludedPaths - Glob pattern of directories to exclude
+     * @param type          - The descriptor type
+     * @return the directories containing the descriptor.
+     * @throws IOException in case of an error while walking a path.
+     */
+    synchronized Set<String> getDescriptorDirs(Set<Path> paths, String excludedPaths, DescriptorType type) throws IOException {
+        if (!StringUtils.equals(this.excludedPaths, excludedPaths)) {
+            // The exclusions were changed - Reindex
+            this.excludedPaths = excludedPaths;
+            this.exclusions = FileSystems.getDefault().getPathMatcher("glob:" + excludedPaths);
+            clear();
+        }
+        applyPendingChanges();
+        for (Path path : paths) {
+            if (!isIndexed(path)) {
+                walk(path);
+                indexedPaths.add(path);
+            }
+        }
+        return descriptorDirs.get(type).stream()
+                .filter(dir -> paths.stream().anyMatch(dir::startsWith))
+                .map(Path::toString)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Drop the index, so that the project paths are walked again on the next query.
+     */
+    synchronized void invalidate() {
+        clear();
+    }
+
+    @Override
+    public void after(@NotNull List<? extends VFileEvent> events) {
+        for (VFileEvent event : events) {
+            if (event instanceof VFileCreateEvent) {
+                added(event.getPath(), ((VFileCreateEvent) event).isDirectory());
+            } else if (event instanceof VFileCopyEvent) {
+                VFileCopyEvent copyEvent = (VFileCopyEvent) event;
+                added(copyEvent.getNewParent().getPath() + "/" + copyEvent.getNewChildName(), copyEvent.getFile().isDirectory());
+            } else if (event instanceof VFileDeleteEvent) {
+                removed(event.getPath(), ((VFileDeleteEvent) event).getFile().isDirectory());
+            } else if (event instanceof VFileMoveEvent) {
+                VFileMoveEvent moveEvent = (VFileMoveEvent) event;
+                boolean directory = moveEvent.getFile().isDirectory();
+                removed(moveEvent.getOldPath(), directory);
+                added(moveEvent.getNewPath(), directory);
+            } else if (event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename()) {
+                VFilePropertyChangeEvent renameEvent = (VFilePropertyChangeEvent) event;
+                boolean directory = renameEvent.getFile().isDirectory();
+                removed(renameEvent.getOldPath(), directory);
+                added(renameEvent.getNewPath(), directory);
+            }
+        }
+    }
+
+    void added(String path, boolean directory) {
+        if (directory || isDescriptor(path)) {
+            pendingChanges.add(new PathChange(Paths.get(path), true));
+        }
+    }
+
+    void removed(String path, boolean directory) {
+        if (directory || isDescriptor(path)) {
+            pendingChanges.add(new PathChange(Paths.get(path), false));
+        }
+    }
+
+    private void applyPendingChanges() throws IOException {
+        PathChange change;
+        while ((change = pendingChanges.poll()) != null) {
+            Path path = change.path;
+            Path root = indexedPaths.stream().filter(path::startsWith).findAny().orElse(null);
+            if (root == null) {
+                // Not under a walked path. The path will be walked if it is ever queried.
+                continue;
+            }
+            if (!change.added) {
+                descriptorDirs.values().forEach(dirs -> dirs.removeIf(dir -> dir.startsWith(path)));
+                Path parent = path.getParent();
+                if (parent != null) {
+                    descriptorDirs.forEach((type, dirs) -> {
+                        if (dirs.contains(parent) && !containsDescriptor(parent, type)) {
+                            dirs.remove(parent);
+                        }
+                    });
+                }
+                continue;
+            }
+            if (isExcluded(root, path.getParent())) {
+                continue;
+            }
+            if (Files.isDirectory(path)) {
+                walk(path);
+            } else if (Files.isRegularFile(path)) {
+                addDescriptor(path);
+            }
+        }
+    }
+
+    /**
+     * Return true if the path is under a walked path.
+     */
+    private boolean isIndexed(Path path) {
+        return indexedPaths.stream().anyMatch(path::startsWith);
+    }
+
+    /**
+     * Return true if the directory or one of its parents under the root is excluded.
+     */
+    private boolean isExcluded(Path root, Path dir) {
+        for (Path current = dir; current != null && current.startsWith(root); current = current.getParent()) {
+            if (exclusions.matches(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void walk(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return;
+        }
+        Files.walkFileTree(path, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                return exclusions.matches(dir) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                addDescriptor(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                // Skip unreadable files and directories
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void addDescriptor(Path file) {
+        DescriptorType type = getDescriptorType(file.getFileName().toString());
+        if (type != null) {
+            descriptorDirs.get(type).add(file.getParent());
+        }
+    }
+
+    private void clear() {
+        descriptorDirs.values().forEach(Set::clear);
+        indexedPaths.clear();
+        pendingChanges.clear();
+    }
+
+    private static boolean isDescriptor(String path) {
+        return getDescriptorType(StringUtils.substringAfterLast(path, "/")) != null;
+    }
+
+    private static boolean containsDescriptor(Path dir, DescriptorType type) {
+        return Arrays.stream(type.fileNames).map(dir::resolve).anyMatch(Files::isRegularFile);
+    }
+
+    private static DescriptorType getDescriptorType(String fileName) {
+        for (DescriptorType type : DescriptorType.values()) {
+            if (StringUtils.equalsAny(fileName, type.fileNames)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private static class PathChange {
+        private final Path path;
+        private final boolean added;
+
+        private PathChange(Path path, boolean added) {
+            this.path = path;
+            this.added = added;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.jfrog.ide.idea.scan;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.ThrowableComputable;
+import com.intellij.openapi.util.registry.Registry;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.jfrog.ide.idea.log.Logger;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Run the external dependency tree builders, such as 'npm ls', the Go toolchain and Gradle, with a global cap on the
+ * number of concurrent processes. Scanning all projects of a polyglot monorepo runs at most
+ * 'jfrog.external.processes.cpu.percent' percent of the available processors worth of processes at once.
+ * A waiting or running builder is abandoned when the scan is canceled or when it runs longer than
+ * 'jfrog.external.process.timeout.minutes' minutes. A waiting builder is dropped from the queue. A running builder is
+ * interrupted, which cancels a Gradle Tooling API build. The processes started by the ide-plugins-common builders are
+ * not exposed, so only the wait for them is abandoned - Such a builder keeps its slot until its process exits.
+ */
+public class ExternalProcessService implements Disposable {
+    private static final String CPU_PERCENT_KEY = "jfrog.external.processes.cpu.percent";
+    private static final String TIMEOUT_MINUTES_KEY = "jfrog.external.process.timeout.minutes";
+    private static final int DEFAULT_CPU_PERCENT = 50;
+    private static final int DEFAULT_TIMEOUT_MINUTES = 10;
+    // Time to wait for the builder before checking for cancellation
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final ExecutorService executor;
+
+    public static ExternalProcessService getInstance() {
+        return ServiceManager.getService(ExternalProcessService.class);
+    }
+
+    private ExternalProcessService() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int maxProcesses = Math.max(1, processors * Registry.intValue(CPU_PERCENT_KEY, DEFAULT_CPU_PERCENT) / 100);
+        executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("JFrog External Processes", maxProcesses);
+    }
+
+    /**
+     * Run a dependency tree builder which starts an external process. The builder waits in a queue until a process
+     * slot is free. Must be called under the progress indicator of the scan.
+     *
+     * @param description - The description of the process, for example "npm ls in /path/to/project"
+     * @param builder     - The dependency tree builder
+     * @return the result of the builder.
+     * @throws IOException              in case of an error in the builder, or if the builder timed out.
+     * @throws ProcessCanceledException if the scan was canceled.
+     */
+    <T> T run(String description, ThrowableComputable<T, IOException> builder) throws IOException {
+        long timeoutMillis = TimeUnit.MINUTES.toMillis(Registry.intValue(TIMEOUT_MINUTES_KEY, DEFAULT_TIMEOUT_MINUTES));
+        // The time the builder started running. Zero while it is queued.
+        AtomicLong startTime = new AtomicLong();
+        Future<T> future = executor.submit(() -> {
+            startTime.set(System.currentTimeMillis());
+            return builder.compute();
+        });
+        while (true) {
+            try {
+                return future.get(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                try {
+                    ProgressManager.checkCanceled();
+                } catch (ProcessCanceledException canceledException) {
+                    abandon(description, future, startTime);
+                    throw canceledException;
+                }
+                long started = startTime.get();
+                if (started > 0 && System.currentTimeMillis() - started > timeoutMillis) {
+                    abandon(description, future, startTime);
+                    throw new IOException(description + " timed out after " + TimeUnit.MILLISECONDS.toMinutes(timeoutMillis) + " minutes");
+                }
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IOException(cause);
+            } catch (InterruptedException e) {
+                abandon(description, future, startTime);
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while running " + description, e);
+            } catch (CancellationException e) {
+                throw new ProcessCanceledException();
+            }
+        }
+    }
+
+    /**
+     * Stop waiting for a builder. A queued builder never runs. A running builder is interrupted, but it holds its slot
+     * in the pool until it returns, so that the number of running processes stays capped.
+     */
+    private static void abandon(String description, Future<?> future, AtomicLong startTime) {
+        future.cancel(true);
+        if (startTime.get() > 0) {
+            Logger.getInstance().debug("Stopped waiting for " + description + ". The process keeps its slot until it exits.");
+        }
+    }
+
+    @Override
+    public void dispose() {
+        executor.shutdownNow();
+    }
+}
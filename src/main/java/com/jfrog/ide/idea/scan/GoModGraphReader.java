@@ -0,0 +1,420 @@
+package com.jfrog.ide.idea.scan;
+
+import com.google.common.collect.Sets;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jfrog.build.extractor.scan.DependencyTree;
+import org.jfrog.build.extractor.scan.GeneralInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Build the Go module graph from go.mod, go.sum and the go.mod files in the module cache, without running the Go
+ * toolchain. The versions are selected by Minimal Version Selection - The highest version required anywhere in the
+ * graph wins. As in Go 1.17 and above, the requirements of go 1.17 dependencies are pruned from the graph of a go 1.17
+ * main module, so that only go.mod files the toolchain has already downloaded are needed.
+ * The reader never downloads modules. If a go.mod file of a module in the graph is missing from the module cache,
+ * an IOException is thrown and the caller should fall back to the Go toolchain.
+ */
+class GoModGraphReader {
+
+    private final Path projectDir;
+    private final Path modCacheDir;
+
+    /**
+     * @param projectDir - The go.mod directory
+     * @param env        - The environment variables, used to locate the module cache
+     */
+    GoModGraphReader(Path projectDir, Map<String, String> env) {
+        this.projectDir = projectDir;
+        this.modCacheDir = getModCacheDir(env);
+    }
+
+    /**
+     * Get the module cache directory - $GOMODCACHE, or the 'pkg/mod' directory in the first entry of $GOPATH.
+     *
+     * @param env - The environment variables
+     * @return the module cache directory.
+     */
+    static Path getModCacheDir(Map<String, String> env) {
+        String goModCache = env.get("GOMODCACHE");
+        if (StringUtils.isNotBlank(goModCache)) {
+            return Paths.get(goModCache);
+        }
+        String goPath = StringUtils.substringBefore(env.get("GOPATH"), File.pathSeparator);
+        if (StringUtils.isBlank(goPath)) {
+            goPath = Paths.get(System.getProperty("user.home"), "go").toString();
+        }
+        return Paths.get(goPath, "pkg", "mod");
+    }
+
+    /**
+     * Build the dependency tree of the main module.
+     *
+     * @return the dependency tree.
+     * @throws IOException if go.mod couldn't be read or if a module go.mod is missing from the module cache.
+     */
+    DependencyTree buildTree() throws IOException {
+        GoMod mainModule = GoMod.parse(Files.readAllLines(projectDir.resolve("go.mod"), StandardCharsets.UTF_8));
+        if (StringUtils.isBlank(mainModule.module)) {
+            throw new IOException("Missing module directive in " + projectDir.resolve("go.mod"));
+        }
+        Map<String, List<Module>> graph = readGraph(mainModule);
+        Map<String, String> selected = selectVersions(mainModule, graph);
+        Set<String> usedModules = readUsedModules();
+        Predicate<Module> isUsed = module -> {
+            if (usedModules == null) {
+                return true;
+            }
+            String replacement = mainModule.getReplacement(module);
+            if (replacement == null) {
+                return usedModules.contains(module.toString());
+            }
+            // Local directories are not hashed in go.sum
+            return !replacement.contains("@") || usedModules.contains(replacement);
+        };
+
+        DependencyTree root = new DependencyTree(mainModule.module);
+        root.setGeneralInfo(new GeneralInfo().artifactId(mainModule.module).path(projectDir.toString()).pkgType("go"));
+        populateDependencyTree(root, mainModule.requires, graph, selected, isUsed, Sets.newHashSet(mainModule.module));
+        return root;
+    }
+
+    /**
+     * Walk the requirements of the main module and read the go.mod file of every module version in the graph.
+     *
+     * @param mainModule - The main module
+     * @return the requirements of each module version in the graph, keyed by 'path@version'.
+     * @throws IOException if a go.mod file is missing from the module cache.
+     */
+    private Map<String, List<Module>> readGraph(GoMod mainModule) throws IOException {
+        boolean pruned = mainModule.isPruned();
+        Map<String, List<Module>> graph = new HashMap<>();
+        Set<String> loaded = new HashSet<>();
+        Deque<Module> queue = new ArrayDeque<>(mainModule.requires);
+        while (!queue.isEmpty()) {
+            Module module = queue.poll();
+            if (!loaded.add(module.toString())) {
+                continue;
+            }
+            if (mainModule.excludes.contains(module.toString())) {
+                // Go would select the next version which is not excluded
+                throw new IOException("Module " + module + " is excluded in go.mod");
+            }
+            GoMod goMod = readGoMod(mainModule, module);
+            graph.put(module.toString(), goMod.requires);
+            for (Module require : goMod.requires) {
+                if (pruned && goMod.isPruned()) {
+                    // The transitive requirements of a go 1.17 dependency are not part of the graph
+                    graph.putIfAbsent(require.toString(), Collections.emptyList());
+                } else {
+                    queue.add(require);
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Read the go.mod file of a module version, taking the replace directives of the main module into account.
+     */
+    private GoMod readGoMod(GoMod mainModule, Module module) throws IOException {
+        String replacement = mainModule.getReplacement(module);
+        Path goModPath;
+        if (replacement == null) {
+            goModPath = getCachedGoMod(module.path, module.version);
+        } else if (replacement.contains("@")) {
+            goModPath = getCachedGoMod(StringUtils.substringBefore(replacement, "@"), StringUtils.substringAfter(replacement, "@"));
+        } else {
+            // Replaced by a local directory
+            goModPath = projectDir.resolve(replacement).resolve("go.mod");
+        }
+        if (!Files.isRegularFile(goModPath)) {
+            throw new IOException("Couldn't find " + goModPath);
+        }
+        return GoMod.parse(Files.readAllLines(goModPath, StandardCharsets.UTF_8));
+    }
+
+    private Path getCachedGoMod(String path, String version) {
+        return modCacheDir.resolve("cache").resolve("download").resolve(escapePath(path))
+                .resolve("@v").resolve(escapePath(version) + ".mod");
+    }
+
+    /**
+     * Apply Minimal Version Selection - For each module path, select the highest required version in the graph.
+     *
+     * @return module path to its selected version.
+     */
+    private static Map<String, String> selectVersions(GoMod mainModule, Map<String, List<Module>> graph) {
+        Map<String, String> selected = new HashMap<>();
+        List<Module> requirements = new ArrayList<>(mainModule.requires);
+        graph.values().forEach(requirements::addAll);
+        for (Module module : requirements) {
+            selected.merge(module.path, module.version, (first, second) -> compareVersions(first, second) >= 0 ? first : second);
+        }
+        return selected;
+    }
+
+    /**
+     * Read the modules whose content was needed to build the main module - The modules having a content hash in go.sum,
+     * and not only a go.mod hash.
+     *
+     * @return 'path@version' of the used modules, or null if there is no go.sum.
+     * @throws IOException in case of an error while reading go.sum.
+     */
+    private Set<String> readUsedModules() throws IOException {
+        Path goSum = projectDir.resolve("go.sum");
+        if (!Files.isRegularFile(goSum)) {
+            return null;
+        }
+        Set<String> usedModules = new HashSet<>();
+        for (String line : Files.readAllLines(goSum, StandardCharsets.UTF_8)) {
+            String[] fields = StringUtils.split(line);
+            if (fields.length == 3 && !fields[1].endsWith("/go.mod")) {
+                usedModules.add(fields[0] + "@" + fields[1]);
+            }
+        }
+        return usedModules;
+    }
+
+    /**
+     * Add the selected version of each requirement as a child node. Every occurrence of a module is expanded, except
+     * for a module which is already an ancestor of the node, to cut cycles.
+     * Modules which are not used by the main module are skipped.
+     */
+    private static void populateDependencyTree(DependencyTree node, List<Module> requires, Map<String, List<Module>> graph,
+                                               Map<String, String> selected, Predicate<Module> isUsed, Set<String> ancestors) {
+        Set<String> addedPaths = new HashSet<>();
+        for (Module require : requires) {
+            Module module = new Module(require.path, selected.get(require.path));
+            if (!addedPaths.add(module.path) || !isUsed.test(module)) {
+                continue;
+            }
+            DependencyTree child = new DependencyTree(module.path + ":" + StringUtils.removeStart(module.version, "v"));
+            node.add(child);
+            if (ancestors.add(module.path)) {
+                populateDependencyTree(child, graph.getOrDefault(module.toString(), Collections.emptyList()), graph,
+                        selected, isUsed, ancestors);
+                ancestors.remove(module.path);
+            }
+        }
+    }
+
+    /**
+     * Escape a module path or version as in the module cache - Each upper-case letter is replaced by an exclamation
+     * mark followed by the lower-case letter.
+     */
+    static String escapePath(String path) {
+        StringBuilder escaped = new StringBuilder(path.length());
+        for (char c : path.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                escaped.append('!').append(Character.toLowerCase(c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Compare two Go module versions by semantic versioning precedence. Pseudo-versions are pre-release versions.
+     *
+     * @return a negative integer, zero, or a positive integer as the first version is lower than, equal to, or higher
+     * than the second version.
+     */
+    static int compareVersions(String first, String second) {
+        String[] firstParts = splitVersion(first);
+        String[] secondParts = splitVersion(second);
+        String[] firstCore = StringUtils.split(firstParts[0], '.');
+        String[] secondCore = StringUtils.split(secondParts[0], '.');
+        for (int i = 0; i < 3; i++) {
+            int result = compareNumeric(i < firstCore.length ? firstCore[i] : "0", i < secondCore.length ? secondCore[i] : "0");
+            if (result != 0) {
+                return result;
+            }
+        }
+        // A version without a pre-release is higher than a version with a pre-release
+        if (firstParts[1].isEmpty() || secondParts[1].isEmpty()) {
+            return Boolean.compare(firstParts[1].isEmpty(), secondParts[1].isEmpty());
+        }
+        String[] firstPreRelease = StringUtils.split(firstParts[1], '.');
+        String[] secondPreRelease = StringUtils.split(secondParts[1], '.');
+        for (int i = 0; i < Math.min(firstPreRelease.length, secondPreRelease.length); i++) {
+            String firstIdentifier = firstPreRelease[i];
+            String secondIdentifier = secondPreRelease[i];
+            boolean firstNumeric = StringUtils.isNumeric(firstIdentifier);
+            boolean secondNumeric = StringUtils.isNumeric(secondIdentifier);
+            int result;
+            if (firstNumeric && secondNumeric) {
+                result = compareNumeric(firstIdentifier, secondIdentifier);
+            } else if (firstNumeric || secondNumeric) {
+                // Numeric identifiers have lower precedence
+                result = firstNumeric ? -1 : 1;
+            } else {
+                result = firstIdentifier.compareTo(secondIdentifier);
+            }
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(firstPreRelease.length, secondPreRelease.length);
+    }
+
+    /**
+     * Split a version to its core and pre-release parts. The 'v' prefix and the build metadata, such as
+     * '+incompatible', are dropped.
+     */
+    private static String[] splitVersion(String version) {
+        version = StringUtils.substringBefore(StringUtils.removeStart(version, "v"), "+");
+        int preReleaseIndex = version.indexOf('-');
+        if (preReleaseIndex < 0) {
+            return new String[]{version, ""};
+        }
+        return new String[]{version.substring(0, preReleaseIndex), version.substring(preReleaseIndex + 1)};
+    }
+
+    private static int compareNumeric(String first, String second) {
+        first = StringUtils.defaultIfEmpty(StringUtils.stripStart(first, "0"), "0");
+        second = StringUtils.defaultIfEmpty(StringUtils.stripStart(second, "0"), "0");
+        if (first.length() != second.length()) {
+            return Integer.compare(first.length(), second.length());
+        }
+        return first.compareTo(second);
+    }
+
+    static class Module {
+        private final String path;
+        private final String version;
+
+        Module(String path, String version) {
+            this.path = path;
+            this.version = version;
+        }
+
+        String getPath() {
+            return path;
+        }
+
+        String getVersion() {
+            return version;
+        }
+
+        @Override
+        public String toString() {
+            return path + "@" + version;
+        }
+    }
+
+    /**
+     * The directives of a go.mod file, relevant for the module graph.
+     */
+    static class GoMod {
+        private String module;
+        private String goVersion = "";
+        private final List<Module> requires = new ArrayList<>();
+        // 'path@version' or 'path' to the replacement - 'path@version' of a module, or a local directory
+        private final Map<String, String> replaces = new HashMap<>();
+        private final Set<String> excludes = new HashSet<>();
+
+        /**
+         * Parse the lines of a go.mod file.
+         *
+         * @param lines - The go.mod lines
+         * @return the parsed go.mod.
+         */
+        static GoMod parse(List<String> lines) {
+            GoMod goMod = new GoMod();
+            String block = null;
+            for (String line : lines) {
+                line = StringUtils.substringBefore(line, "//").trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (block != null) {
+                    if (")".equals(line)) {
+                        block = null;
+                    } else {
+                        goMod.addDirective(block, line);
+                    }
+                    continue;
+                }
+                String verb = StringUtils.substringBefore(line, " ");
+                String args = StringUtils.substringAfter(line, " ").trim();
+                if ("(".equals(args)) {
+                    block = verb;
+                } else {
+                    goMod.addDirective(verb, args);
+                }
+            }
+            return goMod;
+        }
+
+        private void addDirective(String verb, String args) {
+            String[] fields = StringUtils.split(StringUtils.remove(args, '"'));
+            switch (verb) {
+                case "module":
+                    if (fields.length > 0) {
+                        module = fields[0];
+                    }
+                    break;
+                case "go":
+                    if (fields.length > 0) {
+                        goVersion = fields[0];
+                    }
+                    break;
+                case "require":
+                    if (fields.length >= 2) {
+                        requires.add(new Module(fields[0], fields[1]));
+                    }
+                    break;
+                case "exclude":
+                    if (fields.length >= 2) {
+                        excludes.add(fields[0] + "@" + fields[1]);
+                    }
+                    break;
+                case "replace":
+                    int arrowIndex = ArrayUtils.indexOf(fields, "=>");
+                    if (arrowIndex < 1 || arrowIndex == fields.length - 1) {
+                        break;
+                    }
+                    String source = arrowIndex == 2 ? fields[0] + "@" + fields[1] : fields[0];
+                    String target = arrowIndex + 2 < fields.length ?
+                            fields[arrowIndex + 1] + "@" + fields[arrowIndex + 2] : fields[arrowIndex + 1];
+                    replaces.put(source, target);
+            }
+        }
+
+        /**
+         * Get the replacement of a module version - A replacement of the specific version takes precedence over a
+         * replacement of all versions.
+         *
+         * @return 'path@version' of the replacement module, a local directory, or null if the module is not replaced.
+         */
+        String getReplacement(Module module) {
+            String replacement = replaces.get(module.toString());
+            return replacement != null ? replacement : replaces.get(module.path);
+        }
+
+        /**
+         * @return true if the module graph of this module is pruned - The module requires go 1.17 or above.
+         */
+        boolean isPruned() {
+            return StringUtils.isNotBlank(goVersion) && compareVersions(goVersion, "1.17") >= 0;
+        }
+
+        String getModule() {
+            return module;
+        }
+
+        List<Module> getRequires() {
+            return requires;
+        }
+    }
+}
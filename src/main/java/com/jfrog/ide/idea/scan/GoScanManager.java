@@ -22,6 +22,7 @@ import java.nio.file.Paths;
 public class GoScanManager extends ScanManager {
 
     private final GoTreeBuilder goTreeBuilder;
+    private final GoModGraphReader goModGraphReader;
 
     /**
      * @param project  - Currently opened IntelliJ project. We'll use this project to retrieve project based services
@@ -32,12 +33,26 @@ public class GoScanManager extends ScanManager {
         super(project, basePath, ComponentPrefix.GO);
         getLog().info("Found Go project: " + getProjectName());
         goTreeBuilder = new GoTreeBuilder(Paths.get(basePath), EnvironmentUtil.getEnvironmentMap(), getLog());
+        goModGraphReader = new GoModGraphReader(Paths.get(basePath), EnvironmentUtil.getEnvironmentMap());
         subscribeLaunchDependencyScanOnFileChangedEvents("go.sum");
     }
 
+    /**
+     * Build the module graph from go.mod, go.sum and the module cache. Run the Go toolchain only if a go.mod file of a
+     * module in the graph is missing from the module cache, or if go.mod couldn't be parsed.
+     *
+     * @param shouldToast - True if should pop up a balloon when an error occurs.
+     * @throws IOException in case of an error while running the Go toolchain.
+     */
     @Override
     protected void buildTree(boolean shouldToast) throws IOException {
-        setScanResults(goTreeBuilder.buildTree());
+        try {
+            setScanResults(goModGraphReader.buildTree());
+            return;
+        } catch (IOException | RuntimeException e) {
+            getLog().debug("Couldn't read the Go module graph of " + basePath + ": " + e.getMessage() + ". Running the Go toolchain.");
+        }
+        setScanResults(ExternalProcessService.getInstance().run("Go in " + basePath, goTreeBuilder::buildTree));
     }
 
     @Override
@@ -0,0 +1,200 @@
+package com.jfrog.ide.idea.scan;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.events.*;
+import com.intellij.util.EnvironmentUtil;
+import com.jfrog.ide.common.gradle.GradleTreeBuilder;
+import com.jfrog.ide.idea.utils.Utils;
+import org.apache.commons.lang3.StringUtils;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.scan.DependencyTree;
+import org.jfrog.build.extractor.scan.GeneralInfo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static com.jfrog.ide.idea.scan.ScanManager.HOME_PATH;
+
+/**
+ * A Gradle build, shared by the Gradle scan managers of the root project and of its subprojects.
+ * The dependency tree of the whole build is built by a single Gradle invocation in the root project directory, and
+ * each scan manager takes the subtree of its own project. The tree is kept in memory and on disk until the build
+ * files change.
+ */
+class GradleBuild {
+    private static final String[] SETTINGS_FILES = {"settings.gradle", "settings.gradle.kts"};
+
+    private final Path rootDir;
+    private final GradleTreeBuilder gradleTreeBuilder;
+    private final GradleTreeCache treeCache;
+
+    // The last dependency tree of the build and the fingerprint of the build files it was built from
+    private DependencyTree tree;
+    private String fingerprint;
+    // True if the next call to getTree should run Gradle
+    private boolean invalidated;
+
+    /**
+     * @param rootDir - The root project directory of the build
+     */
+    GradleBuild(Path rootDir) {
+        this.rootDir = rootDir;
+        this.gradleTreeBuilder = new GradleTreeBuilder(rootDir, EnvironmentUtil.getEnvironmentMap());
+        String cacheFileName = Integer.toHexString(Utils.getProjectIdentifier(getClass().getSimpleName(), rootDir.toString())) + ".json.gz";
+        this.treeCache = new GradleTreeCache(rootDir, HOME_PATH.resolve("gradle-trees").resolve(cacheFileName));
+    }
+
+    /**
+     * Find the root project directory of the Gradle project, i.e. the closest directory containing a settings file.
+     *
+     * @param projectDir - The Gradle project directory
+     * @return the root project directory, or the project directory itself if there is no settings file.
+     */
+    static Path findRootDir(Path projectDir) {
+        for (Path dir = projectDir.toAbsolutePath(); dir != null; dir = dir.getParent()) {
+            for (String settingsFile : SETTINGS_FILES) {
+                if (Files.isRegularFile(dir.resolve(settingsFile))) {
+                    return dir;
+                }
+            }
+        }
+        return projectDir;
+    }
+
+    Path getRootDir() {
+        return rootDir;
+    }
+
+    /**
+     * Get the dependency tree of the whole build. Gradle runs only if the build files changed since the last
+     * invocation, or if the build was invalidated. Concurrent callers wait for a single invocation.
+     * The returned tree is shared - Callers should copy the parts they modify.
+     *
+     * @param log - The logger
+     * @return the dependency tree of the build.
+     * @throws IOException in case of an error while running Gradle.
+     */
+    synchronized DependencyTree getTree(Log log) throws IOException {
+        String currentFingerprint = null;
+        try {
+            currentFingerprint = treeCache.getFingerprint();
+            if (!invalidated && currentFingerprint.equals(fingerprint)) {
+                return tree;
+            }
+            DependencyTree cachedTree = invalidated ? null : treeCache.load(currentFingerprint);
+            if (cachedTree != null) {
+                log.debug("No changes in the Gradle build files of " + rootDir + " - Using the cached dependency tree");
+                return setTree(cachedTree, currentFingerprint);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Couldn't load the cached dependency tree of " + rootDir + ": " + e.getMessage());
+        }
+
+        DependencyTree builtTree = ExternalProcessService.getInstance().run("Gradle in " + rootDir, () -> buildTree(log));
+        if (currentFingerprint == null) {
+            return setTree(builtTree, null);
+        }
+        try {
+            treeCache.save(currentFingerprint, builtTree);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Couldn't cache the dependency tree of " + rootDir + ": " + e.getMessage());
+        }
+        return setTree(builtTree, currentFingerprint);
+    }
+
+    /**
+     * Build the dependency tree through a pooled Gradle Tooling API connection, to reuse a warm Gradle daemon.
+     * If the Gradle plugin is not installed or the Tooling API build fails, run Gradle from the command line.
+     *
+     * @param log - The logger
+     * @return the dependency tree of the build.
+     * @throws IOException in case of an error while running Gradle.
+     */
+    private DependencyTree buildTree(Log log) throws IOException {
+        try {
+            GradleConnectionPool connectionPool = GradleConnectionPool.getInstance();
+            if (connectionPool != null) {
+                try (GradleConnectionPool.Lease lease = connectionPool.acquire(rootDir)) {
+                    return GradleToolingTreeBuilder.buildTree(lease.getConnection(), rootDir);
+                }
+            }
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (IOException | RuntimeException | NoClassDefFoundError e) {
+            log.debug("Couldn't build the dependency tree of " + rootDir + " using the Gradle Tooling API: " +
+                    e.getMessage() + ". Running Gradle from the command line.");
+        }
+        return gradleTreeBuilder.buildTree(log);
+    }
+
+    /**
+     * Make the next call to {@link #getTree(Log)} run Gradle, even if the build files didn't change.
+     * Used on manual refresh, to resolve dynamic and changing versions again.
+     */
+    synchronized void invalidate() {
+        invalidated = true;
+        // Read the build files again, in case the VFS missed a change
+        treeCache.invalidateFingerprint();
+    }
+
+    /**
+     * Report VFS changes to the fingerprint of the build files, so that the build files are read again only after
+     * they changed.
+     *
+     * @param events - The VFS events
+     */
+    void filesChanged(List<? extends VFileEvent> events) {
+        for (VFileEvent event : events) {
+            VirtualFile file = event.getFile();
+            boolean directory = event instanceof VFileCreateEvent ? ((VFileCreateEvent) event).isDirectory() :
+                    file != null && file.isDirectory();
+            if (event instanceof VFileCopyEvent) {
+                VFileCopyEvent copyEvent = (VFileCopyEvent) event;
+                treeCache.fileChanged(Paths.get(copyEvent.getNewParent().getPath(), copyEvent.getNewChildName()), directory);
+                continue;
+            }
+            treeCache.fileChanged(Paths.get(event.getPath()), directory);
+            if (event instanceof VFileMoveEvent) {
+                treeCache.fileChanged(Paths.get(((VFileMoveEvent) event).getOldPath()), directory);
+            } else if (event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename()) {
+                treeCache.fileChanged(Paths.get(((VFilePropertyChangeEvent) event).getOldPath()), directory);
+            }
+        }
+    }
+
+    /**
+     * Get the subtree of a project in the build.
+     *
+     * @param buildTree  - The dependency tree of the build
+     * @param projectDir - The project directory
+     * @return the subtree of the project, or null if the project was not found in the build tree.
+     */
+    DependencyTree getProjectTree(DependencyTree buildTree, Path projectDir) {
+        if (buildTree == null || rootDir.equals(projectDir)) {
+            return buildTree;
+        }
+        String projectName = projectDir.getFileName().toString();
+        for (DependencyTree child : buildTree.getChildren()) {
+            GeneralInfo generalInfo = child.getGeneralInfo();
+            if (generalInfo == null) {
+                continue;
+            }
+            if (projectDir.toString().equals(generalInfo.getPath()) ||
+                    (StringUtils.isBlank(generalInfo.getPath()) && projectName.equals(generalInfo.getArtifactId()))) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private DependencyTree setTree(DependencyTree tree, String fingerprint) {
+        this.tree = tree;
+        this.fingerprint = fingerprint;
+        this.invalidated = false;
+        return tree;
+    }
+}
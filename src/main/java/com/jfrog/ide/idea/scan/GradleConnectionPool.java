@@ -0,0 +1,184 @@
+package com.jfrog.ide.idea.scan;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.util.registry.Registry;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.jfrog.ide.idea.log.Logger;
+import org.apache.commons.lang3.StringUtils;
+import org.gradle.tooling.GradleConnector;
+import org.gradle.tooling.ProjectConnection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of Gradle Tooling API connections, keyed by the root project directory and the Gradle distribution.
+ * Reusing a connection keeps its Gradle daemon warm between scans. Connections which were not used for
+ * 'jfrog.gradle.connection.idle.minutes' minutes are closed.
+ */
+public class GradleConnectionPool implements Disposable {
+    private static final String IDLE_MINUTES_KEY = "jfrog.gradle.connection.idle.minutes";
+    private static final int DEFAULT_IDLE_MINUTES = 10;
+
+    private final Map<Key, PooledConnection> connections = new HashMap<>();
+    private final ScheduledFuture<?> evictionTask;
+
+    public static GradleConnectionPool getInstance() {
+        return ServiceManager.getService(GradleConnectionPool.class);
+    }
+
+    private GradleConnectionPool() {
+        evictionTask = AppExecutorUtil.getAppScheduledExecutorService()
+                .scheduleWithFixedDelay(this::evictIdleConnections, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Acquire a connection to the Gradle build. The connection must be released by closing the returned lease.
+     * Connections to the same build with another Gradle distribution are closed, if not in use.
+     *
+     * @param rootDir - The root project directory of the build
+     * @return a lease of the connection.
+     */
+    synchronized Lease acquire(Path rootDir) {
+        Key key = new Key(rootDir, getDistribution(rootDir));
+        Iterator<Map.Entry<Key, PooledConnection>> iterator = connections.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, PooledConnection> entry = iterator.next();
+            if (entry.getKey().rootDir.equals(rootDir) && !entry.getKey().equals(key) && entry.getValue().leases == 0) {
+                entry.getValue().close();
+                iterator.remove();
+            }
+        }
+        PooledConnection pooledConnection = connections.computeIfAbsent(key, GradleConnectionPool::connect);
+        pooledConnection.leases++;
+        return new Lease(pooledConnection);
+    }
+
+    private synchronized void release(PooledConnection pooledConnection) {
+        pooledConnection.leases--;
+        pooledConnection.lastUsed = System.currentTimeMillis();
+    }
+
+    /**
+     * Close the connections which are not in use and were not used during the idle period.
+     */
+    synchronized void evictIdleConnections() {
+        long idleMillis = TimeUnit.MINUTES.toMillis(Registry.intValue(IDLE_MINUTES_KEY, DEFAULT_IDLE_MINUTES));
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> iterator = connections.values().iterator();
+        while (iterator.hasNext()) {
+            PooledConnection pooledConnection = iterator.next();
+            if (pooledConnection.leases == 0 && now - pooledConnection.lastUsed >= idleMillis) {
+                pooledConnection.close();
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void dispose() {
+        evictionTask.cancel(false);
+        connections.values().forEach(PooledConnection::close);
+        connections.clear();
+    }
+
+    /**
+     * Connect to the Gradle build. The Tooling API uses the distribution of the Gradle wrapper, if exists.
+     */
+    private static PooledConnection connect(Key key) {
+        return new PooledConnection(GradleConnector.newConnector().forProjectDirectory(key.rootDir.toFile()).connect());
+    }
+
+    /**
+     * Get the Gradle distribution of the build from the Gradle wrapper properties.
+     * Upgrading the wrapper changes the distribution, so that a new connection is created.
+     *
+     * @param rootDir - The root project directory of the build
+     * @return the distribution URL, or an empty string if the build has no Gradle wrapper.
+     */
+    private static String getDistribution(Path rootDir) {
+        Path wrapperProperties = rootDir.resolve("gradle").resolve("wrapper").resolve("gradle-wrapper.properties");
+        if (!Files.isRegularFile(wrapperProperties)) {
+            return "";
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(wrapperProperties)) {
+            properties.load(inputStream);
+        } catch (IOException e) {
+            Logger.getInstance().debug("Couldn't read " + wrapperProperties + ": " + e.getMessage());
+        }
+        return StringUtils.trimToEmpty(properties.getProperty("distributionUrl"));
+    }
+
+    /**
+     * A lease of a pooled connection. Closing the lease returns the connection to the pool.
+     */
+    class Lease implements AutoCloseable {
+        private final PooledConnection pooledConnection;
+        private boolean released;
+
+        private Lease(PooledConnection pooledConnection) {
+            this.pooledConnection = pooledConnection;
+        }
+
+        ProjectConnection getConnection() {
+            return pooledConnection.connection;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(pooledConnection);
+            }
+        }
+    }
+
+    private static class PooledConnection {
+        private final ProjectConnection connection;
+        private int leases;
+        private long lastUsed = System.currentTimeMillis();
+
+        private PooledConnection(ProjectConnection connection) {
+            this.connection = connection;
+        }
+
+        private void close() {
+            try {
+                connection.close();
+            } catch (RuntimeException e) {
+                Logger.getInstance().debug("Couldn't close the Gradle connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private static class Key {
+        private final Path rootDir;
+        private final String distribution;
+
+        private Key(Path rootDir, String distribution) {
+            this.rootDir = rootDir;
+            this.distribution = distribution;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return rootDir.equals(other.rootDir) && distribution.equals(other.distribution);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rootDir, distribution);
+        }
+    }
+}
@@ -6,13 +6,12 @@ import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
-import com.intellij.util.EnvironmentUtil;
-import com.jfrog.ide.common.gradle.GradleTreeBuilder;
 import com.jfrog.ide.common.scan.ComponentPrefix;
 import com.jfrog.ide.idea.inspections.GradleGroovyInspection;
 import com.jfrog.ide.idea.inspections.GradleKotlinInspection;
 import com.jfrog.ide.idea.ui.ComponentsTree;
 import com.jfrog.ide.idea.ui.filters.filtermanager.ConsistentFilterManager;
+import org.jfrog.build.extractor.scan.DependencyTree;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -23,18 +22,21 @@ import java.nio.file.Paths;
  */
 public class GradleScanManager extends ScanManager {
 
-    private final GradleTreeBuilder gradleTreeBuilder;
+    private final GradleBuild gradleBuild;
+    // A build of this project alone, used if the project is not found in the tree of the shared build
+    private GradleBuild projectBuild;
     private boolean kotlin;
 
     /**
-     * @param project  - Currently opened IntelliJ project. We'll use this project to retrieve project based services
-     *                 like {@link ConsistentFilterManager} and {@link ComponentsTree}.
-     * @param basePath - The build.gradle or build.gradle.kts directory.
+     * @param project     - Currently opened IntelliJ project. We'll use this project to retrieve project based services
+     *                    like {@link ConsistentFilterManager} and {@link ComponentsTree}.
+     * @param basePath    - The build.gradle or build.gradle.kts directory.
+     * @param gradleBuild - The Gradle build the project belongs to, shared with the other projects of the build.
      */
-    GradleScanManager(Project project, String basePath) throws IOException {
+    GradleScanManager(Project project, String basePath, GradleBuild gradleBuild) throws IOException {
         super(project, basePath, ComponentPrefix.GAV);
         getLog().info("Found Gradle project: " + getProjectName());
-        gradleTreeBuilder = new GradleTreeBuilder(Paths.get(basePath), EnvironmentUtil.getEnvironmentMap());
+        this.gradleBuild = gradleBuild;
     }
 
     @Override
@@ -58,8 +60,38 @@ public class GradleScanManager extends ScanManager {
         return kotlin ? new GradleKotlinInspection() : new GradleGroovyInspection();
     }
 
+    GradleBuild getGradleBuild() {
+        return gradleBuild;
+    }
+
+    /**
+     * Make the next scan run Gradle, even if the build files didn't change.
+     */
+    void invalidateGradleBuild() {
+        gradleBuild.invalidate();
+        if (projectBuild != null) {
+            projectBuild.invalidate();
+        }
+    }
+
+    /**
+     * Take the subtree of this project from the dependency tree of the shared Gradle build.
+     * The shared tree is copied, since the scan results are modified during the scan.
+     *
+     * @param shouldToast - True if should pop up a balloon when an error occurs.
+     */
     @Override
     protected void buildTree(boolean shouldToast) throws IOException {
-        setScanResults(gradleTreeBuilder.buildTree(getLog()));
+        Path projectDir = Paths.get(basePath);
+        DependencyTree projectTree = gradleBuild.getProjectTree(gradleBuild.getTree(getLog()), projectDir);
+        if (projectTree == null && !projectDir.equals(gradleBuild.getRootDir())) {
+            getLog().debug("Gradle project " + basePath + " was not found in the build of " + gradleBuild.getRootDir() +
+                    ". Running Gradle in the project directory.");
+            if (projectBuild == null) {
+                projectBuild = new GradleBuild(projectDir);
+            }
+            projectTree = projectBuild.getTree(getLog());
+        }
+        setScanResults(projectTree != null ? DependencyTreeDiff.copyTree(projectTree) : null);
     }
-}
\ No newline at end of file
+}
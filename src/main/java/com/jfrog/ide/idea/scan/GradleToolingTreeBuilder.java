@@ -0,0 +1,192 @@
+package com.jfrog.ide.idea.scan;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.util.EnvironmentUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.gradle.tooling.BuildLauncher;
+import org.gradle.tooling.CancellationTokenSource;
+import org.gradle.tooling.GradleConnectionException;
+import org.gradle.tooling.GradleConnector;
+import org.gradle.tooling.ProjectConnection;
+import org.gradle.tooling.ResultHandler;
+import org.jfrog.build.extractor.scan.DependencyTree;
+import org.jfrog.build.extractor.scan.GeneralInfo;
+import org.jfrog.build.extractor.scan.Scope;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Build the dependency tree of a Gradle build through a Gradle Tooling API connection.
+ * An init script adds a task writing the resolved dependencies of each project to a JSON file.
+ */
+class GradleToolingTreeBuilder {
+    private static final String INIT_SCRIPT_RESOURCE = "/gradle/dependency-tree.gradle";
+    private static final String TASK_NAME = "jfrogDependencyTree";
+    private static final long CANCELLATION_POLL_MILLIS = 100;
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * Build the dependency tree of the build.
+     *
+     * @param connection - Connection to the Gradle build
+     * @param rootDir    - The root project directory of the build
+     * @return the dependency tree of the build. If the build has a single project, the project node.
+     * @throws IOException in case of an error while running the build or reading its output.
+     */
+    static DependencyTree buildTree(ProjectConnection connection, Path rootDir) throws IOException {
+        Path outputDir = Files.createTempDirectory("jfrog-gradle-tree");
+        try {
+            Path initScript = outputDir.resolve("init.gradle");
+            try (InputStream inputStream = GradleToolingTreeBuilder.class.getResourceAsStream(INIT_SCRIPT_RESOURCE)) {
+                if (inputStream == null) {
+                    throw new IOException("Couldn't find " + INIT_SCRIPT_RESOURCE);
+                }
+                Files.copy(inputStream, initScript);
+            }
+            Map<String, String> env = EnvironmentUtil.getEnvironmentMap();
+            BuildLauncher buildLauncher = connection.newBuild()
+                    .forTasks(TASK_NAME)
+                    .withArguments("--init-script", initScript.toString(), "-q", "-PjfrogDependencyTreeDir=" + outputDir)
+                    .setEnvironmentVariables(env);
+            String javaHome = env.get("JAVA_HOME");
+            if (StringUtils.isNotBlank(javaHome) && Files.isDirectory(Paths.get(javaHome))) {
+                buildLauncher.setJavaHome(new File(javaHome));
+            }
+            run(buildLauncher);
+            return createDependencyTree(rootDir, readProjects(outputDir));
+        } finally {
+            FileUtil.delete(outputDir.toFile());
+        }
+    }
+
+    /**
+     * Run the build and wait for it to finish. Cancel the build if the scan is canceled.
+     */
+    private static void run(BuildLauncher buildLauncher) throws IOException {
+        CancellationTokenSource tokenSource = GradleConnector.newCancellationTokenSource();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        buildLauncher.withCancellationToken(tokenSource.token()).run(new ResultHandler<Void>() {
+            @Override
+            public void onComplete(Void unused) {
+                result.complete(null);
+            }
+
+            @Override
+            public void onFailure(GradleConnectionException failure) {
+                result.completeExceptionally(failure);
+            }
+        });
+        while (true) {
+            try {
+                result.get(CANCELLATION_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                try {
+                    ProgressManager.checkCanceled();
+                } catch (ProcessCanceledException canceledException) {
+                    tokenSource.cancel();
+                    throw canceledException;
+                }
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                tokenSource.cancel();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while running Gradle", e);
+            }
+        }
+    }
+
+    static List<ProjectNode> readProjects(Path outputDir) throws IOException {
+        List<ProjectNode> projects = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(outputDir, "*.json")) {
+            for (Path projectFile : stream) {
+                projects.add(mapper.readValue(projectFile.toFile(), ProjectNode.class));
+            }
+        }
+        if (projects.isEmpty()) {
+            throw new IOException("The Gradle build didn't produce any dependencies output");
+        }
+        projects.sort((first, second) -> StringUtils.compare(first.path, second.path));
+        return projects;
+    }
+
+    static DependencyTree createDependencyTree(Path rootDir, List<ProjectNode> projects) {
+        List<DependencyTree> projectNodes = projects.stream()
+                .map(GradleToolingTreeBuilder::createProjectNode)
+                .collect(Collectors.toList());
+        if (projectNodes.size() == 1) {
+            return projectNodes.get(0);
+        }
+        String rootName = rootDir.getFileName().toString();
+        DependencyTree root = new DependencyTree(rootName);
+        root.setGeneralInfo(new GeneralInfo().artifactId(rootName).path(rootDir.toString()).pkgType("gradle"));
+        projectNodes.forEach(root::add);
+        return root;
+    }
+
+    private static DependencyTree createProjectNode(ProjectNode project) {
+        DependencyTree projectNode = new DependencyTree(project.name);
+        projectNode.setGeneralInfo(new GeneralInfo()
+                .groupId(StringUtils.defaultString(project.group))
+                .artifactId(project.name)
+                .version(StringUtils.defaultString(project.version))
+                .path(project.path)
+                .pkgType("gradle"));
+        if (project.dependencies != null) {
+            project.dependencies.stream().map(GradleToolingTreeBuilder::createDependencyNode).forEach(projectNode::add);
+        }
+        return projectNode;
+    }
+
+    private static DependencyTree createDependencyNode(DependencyNode dependency) {
+        DependencyTree node = new DependencyTree(dependency.id);
+        node.setGeneralInfo(new GeneralInfo().componentId(dependency.id).pkgType("gradle"));
+        if (dependency.scopes != null) {
+            node.setScopes(dependency.scopes.stream().map(Scope::new).collect(Collectors.toSet()));
+        }
+        if (dependency.children != null) {
+            dependency.children.stream().map(GradleToolingTreeBuilder::createDependencyNode).forEach(node::add);
+        }
+        return node;
+    }
+
+    /**
+     * The output of the init script for a single project.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static class ProjectNode {
+        public String name;
+        public String group;
+        public String version;
+        public String path;
+        public List<DependencyNode> dependencies;
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public static class DependencyNode {
+        public String id;
+        public Set<String> scopes;
+        public List<DependencyNode> children;
+    }
+}
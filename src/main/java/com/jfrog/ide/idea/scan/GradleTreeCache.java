@@ -0,0 +1,183 @@
+package com.jfrog.ide.idea.scan;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.commons.lang3.StringUtils;
+import org.jfrog.build.extractor.scan.DependencyTree;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * On-disk cache of the dependency tree of a Gradle project.
+ * The cached tree is valid as long as the content of the files affecting the dependencies resolution doesn't change.
+ * The fingerprint of these files is computed once, and computed again only after {@link #fileChanged(Path, boolean)}
+ * reports a change in a build file, so that a scan of an unchanged build doesn't walk the project directory.
+ */
+class GradleTreeCache {
+    // Increase when the format of the cached tree or the fingerprint changes
+    private static final String CACHE_VERSION = "2";
+    private static final String[] BUILD_FILES = {"settings.gradle", "settings.gradle.kts", "build.gradle",
+            "build.gradle.kts", "gradle.properties", "gradle-wrapper.properties", "gradle.lockfile"};
+    private static final String[] BUILD_FILES_SUFFIXES = {".versions.toml", ".lockfile"};
+    private static final String[] SKIPPED_DIRS = {"build", "out", "node_modules", ".gradle", ".idea", ".git"};
+
+    private final Path projectDir;
+    private final Path treePath;
+    private final Path fingerprintPath;
+    // The fingerprint of the build files, or null if a build file changed since it was computed. Guarded by 'this'.
+    private String fingerprint;
+    // Incremented on every change in the build files. Guarded by 'this'.
+    private long modificationCount;
+
+    /**
+     * @param projectDir - The Gradle project directory
+     * @param cachePath  - The cache file of the dependency tree
+     */
+    GradleTreeCache(Path projectDir, Path cachePath) {
+        this.projectDir = projectDir;
+        this.treePath = cachePath;
+        this.fingerprintPath = cachePath.resolveSibling(cachePath.getFileName() + ".sha256");
+    }
+
+    /**
+     * Load the cached dependency tree.
+     *
+     * @param fingerprint - The current fingerprint of the build files
+     * @return the cached dependency tree, or null if there is no cached tree for the fingerprint.
+     * @throws IOException in case of any I/O error or if the cache is corrupted.
+     */
+    DependencyTree load(String fingerprint) throws IOException {
+        if (!Files.isRegularFile(fingerprintPath) ||
+                !fingerprint.equals(new String(Files.readAllBytes(fingerprintPath), StandardCharsets.UTF_8))) {
+            return null;
+        }
+        return ScanSnapshot.load(treePath);
+    }
+
+    /**
+     * Save the dependency tree to the cache.
+     * The fingerprint is deleted first and written last, so that a partially written cache is never loaded.
+     *
+     * @param fingerprint - The fingerprint of the build files the tree was built from
+     * @param tree        - The dependency tree
+     * @throws IOException in case of any I/O error.
+     */
+    void save(String fingerprint, DependencyTree tree) throws IOException {
+        Files.deleteIfExists(fingerprintPath);
+        ScanSnapshot.save(treePath, tree);
+        Files.write(fingerprintPath, fingerprint.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get a fingerprint of the content of the files affecting the dependencies resolution: the settings and build
+     * scripts, gradle.properties, version catalogs, lockfiles, the Gradle wrapper properties and the buildSrc sources.
+     * The build files are read only if they changed since the last call.
+     *
+     * @return the fingerprint.
+     * @throws IOException in case of an error while reading the build files.
+     */
+    String getFingerprint() throws IOException {
+        long count;
+        synchronized (this) {
+            if (fingerprint != null) {
+                return fingerprint;
+            }
+            count = modificationCount;
+        }
+        String computed = computeFingerprint();
+        synchronized (this) {
+            // Don't keep a fingerprint computed while a build file changed
+            if (count == modificationCount) {
+                fingerprint = computed;
+            }
+        }
+        return computed;
+    }
+
+    /**
+     * Report a created, modified, moved or deleted file. Drop the fingerprint if the file may affect the dependencies
+     * resolution. A directory outside the build outputs may contain build files, so it drops the fingerprint too.
+     *
+     * @param path      - The path of the file
+     * @param directory - True if the file is a directory
+     */
+    void fileChanged(Path path, boolean directory) {
+        if (!path.startsWith(projectDir) || isSkipped(projectDir.relativize(path))) {
+            return;
+        }
+        if (directory || isBuildFile(path)) {
+            invalidateFingerprint();
+        }
+    }
+
+    /**
+     * Drop the fingerprint, so that the build files are read again on the next call to {@link #getFingerprint()}.
+     */
+    synchronized void invalidateFingerprint() {
+        fingerprint = null;
+        modificationCount++;
+    }
+
+    private String computeFingerprint() throws IOException {
+        List<Path> buildFiles = getBuildFiles();
+        Collections.sort(buildFiles);
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(CACHE_VERSION, StandardCharsets.UTF_8);
+        for (Path buildFile : buildFiles) {
+            hasher.putString(projectDir.relativize(buildFile).toString(), StandardCharsets.UTF_8);
+            hasher.putBytes(Files.readAllBytes(buildFile));
+        }
+        return hasher.hash().toString();
+    }
+
+    private List<Path> getBuildFiles() throws IOException {
+        List<Path> buildFiles = new ArrayList<>();
+        Files.walkFileTree(projectDir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(projectDir) && StringUtils.equalsAny(dir.getFileName().toString(), SKIPPED_DIRS)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (isBuildFile(file)) {
+                    buildFiles.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return buildFiles;
+    }
+
+    private boolean isBuildFile(Path file) {
+        String fileName = file.getFileName().toString();
+        return file.startsWith(projectDir.resolve("buildSrc")) || StringUtils.equalsAny(fileName, BUILD_FILES) ||
+                StringUtils.endsWithAny(fileName, BUILD_FILES_SUFFIXES);
+    }
+
+    /**
+     * @return true if the relative path is in a directory skipped by the fingerprint, such as a build output.
+     */
+    private static boolean isSkipped(Path relativePath) {
+        for (Path name : relativePath) {
+            if (StringUtils.equalsAny(name.toString(), SKIPPED_DIRS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
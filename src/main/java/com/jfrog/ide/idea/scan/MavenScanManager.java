@@ -1,8 +1,11 @@
 package com.jfrog.ide.idea.scan;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.concurrency.JobLauncher;
 import com.intellij.ide.highlighter.XmlFileType;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.vfs.VirtualFile;
@@ -28,6 +31,9 @@ import org.jfrog.build.extractor.scan.Scope;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -36,7 +42,6 @@ import java.util.stream.Collectors;
  * Created by romang on 3/2/17.
  */
 public class MavenScanManager extends ScanManager {
-
     MavenScanManager(Project project) throws IOException {
         super(project, Utils.getProjectBasePath(project).toString(), ComponentPrefix.GAV);
         getLog().info("Found Maven project: " + getProjectName());
@@ -60,10 +65,27 @@ public class MavenScanManager extends ScanManager {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Build the dependency tree of each Maven module in parallel, under the progress indicator of the scan.
+     * The module nodes and the dependencies each module inherits from its parents are collected first. Then the
+     * dependencies of the modules are populated concurrently, and finally the submodule nodes are attached to their
+     * parents, after the dependencies.
+     */
     @Override
     protected void buildTree(boolean shouldToast) {
         DependencyTree rootNode = new DependencyTree(project.getName());
-        MavenProjectsManager.getInstance(project).getRootProjects().forEach(rootMavenProject -> populateMavenModule(rootNode, rootMavenProject, Sets.newHashSet()));
+        MavenProjectsManager mavenProjectsManager = MavenProjectsManager.getInstance(project);
+        Map<String, MavenProject> modulesByPath = createModulesIndex(mavenProjectsManager.getProjects());
+        List<MavenModule> modules = new ArrayList<>();
+        List<MavenModule> rootModules = mavenProjectsManager.getRootProjects().stream()
+                .map(rootMavenProject -> collectModules(rootMavenProject, Sets.newHashSet(), modulesByPath, modules))
+                .collect(Collectors.toList());
+        JobLauncher.getInstance().invokeConcurrentlyUnderProgress(modules, ProgressManager.getInstance().getProgressIndicator(), module -> {
+            addMavenProjectDependencies(module.node, module.mavenProject, module.added);
+            return true;
+        });
+        modules.forEach(module -> module.submodules.forEach(submodule -> module.node.add(submodule.node)));
+        rootModules.forEach(rootModule -> rootNode.add(rootModule.node));
         GeneralInfo generalInfo = new GeneralInfo().artifactId(project.getName()).path(basePath).pkgType("maven");
         rootNode.setGeneralInfo(generalInfo);
         if (rootNode.getChildren().size() == 1) {
@@ -85,42 +107,107 @@ public class MavenScanManager extends ScanManager {
         return new MavenInspection();
     }
 
-    private void addSubmodules(DependencyTree mavenNode, MavenProject mavenProject, Set<String> added) {
-        mavenProject.getExistingModuleFiles().stream()
-                .map(this::getModuleByVirtualFile)
-                .filter(Objects::nonNull)
-                .forEach(mavenModule -> populateMavenModule(mavenNode, mavenModule, added));
+    /**
+     * The subtree of a pom.xml is the node of its Maven module.
+     */
+    @Override
+    protected DependencyTree getDescriptorTree(PsiFile descriptor, DependencyTree projectTree) {
+        MavenProject mavenProject = MavenProjectsManager.getInstance(project).findProject(descriptor.getVirtualFile());
+        if (mavenProject == null) {
+            return null;
+        }
+        return findModuleNode(projectTree, mavenProject.getMavenId());
+    }
+
+    private static DependencyTree findModuleNode(DependencyTree node, MavenId mavenId) {
+        GeneralInfo generalInfo = node.getGeneralInfo();
+        if (generalInfo != null && Objects.equals(mavenId.getArtifactId(), node.getUserObject()) &&
+                Objects.equals(mavenId.getGroupId(), generalInfo.getGroupId())) {
+            return node;
+        }
+        for (DependencyTree child : node.getChildren()) {
+            // The modules are named by their artifact ID, and the dependencies by their component ID
+            Object userObject = child.getUserObject();
+            if (userObject == null || userObject.toString().contains(":")) {
+                continue;
+            }
+            DependencyTree moduleNode = findModuleNode(child, mavenId);
+            if (moduleNode != null) {
+                return moduleNode;
+            }
+        }
+        return null;
     }
 
     /**
-     * Populate recursively the dependency tree with the maven module and its dependencies.
+     * Create an index of the Maven projects by the canonical path of their pom.xml file.
      *
-     * @param root             - The root dependencies node
-     * @param rootMavenProject - The root Maven project
-     * @param added            - This set is used to make sure the dependencies added are unique between module and its parent
+     * @param mavenProjects - All Maven projects
+     * @return canonical path of the pom.xml to its Maven project.
      */
-    private void populateMavenModule(DependencyTree root, MavenProject rootMavenProject, Set<String> added) {
-        DependencyTree mavenNode = populateMavenModuleNode(rootMavenProject);
-        root.add(mavenNode);
-        added = Sets.newHashSet(added);
-        added.add(rootMavenProject.toString());
-        addMavenProjectDependencies(mavenNode, rootMavenProject, added);
-        addSubmodules(mavenNode, rootMavenProject, added);
+    static Map<String, MavenProject> createModulesIndex(List<MavenProject> mavenProjects) {
+        Map<String, MavenProject> modulesByPath = Maps.newHashMapWithExpectedSize(mavenProjects.size());
+        for (MavenProject mavenProject : mavenProjects) {
+            String canonicalPath = mavenProject.getFile().getCanonicalPath();
+            if (canonicalPath != null) {
+                modulesByPath.putIfAbsent(canonicalPath, mavenProject);
+            }
+        }
+        return modulesByPath;
     }
 
-    private MavenProject getModuleByVirtualFile(VirtualFile virtualFile) {
-        return MavenProjectsManager.getInstance(project).getProjects()
-                .stream()
-                .filter(mavenModule -> Objects.equals(mavenModule.getFile().getCanonicalPath(), virtualFile.getCanonicalPath()))
-                .findAny()
-                .orElse(null);
+    /**
+     * Create the nodes of the Maven module and its submodules, recursively.
+     *
+     * @param mavenProject  - The Maven module
+     * @param inherited     - The dependencies added by the parent modules. Owned by the module.
+     * @param modulesByPath - Canonical path of the pom.xml to its Maven project
+     * @param modules       - All collected modules, to populate
+     * @return the module.
+     */
+    private MavenModule collectModules(MavenProject mavenProject, Set<String> inherited, Map<String, MavenProject> modulesByPath, List<MavenModule> modules) {
+        checkCanceled();
+        inherited.add(mavenProject.toString());
+        MavenModule module = new MavenModule(mavenProject, populateMavenModuleNode(mavenProject), inherited);
+        modules.add(module);
+        // The submodules inherit the direct dependencies of the module, whether or not the module adds them
+        Set<String> submoduleInherited = Sets.newHashSet(inherited);
+        mavenProject.getDependencyTree().stream()
+                .map(dependency -> dependency.getArtifact().getDisplayStringForLibraryName())
+                .forEach(submoduleInherited::add);
+        mavenProject.getExistingModuleFiles().stream()
+                .map(VirtualFile::getCanonicalPath)
+                .filter(Objects::nonNull)
+                .map(modulesByPath::get)
+                .filter(Objects::nonNull)
+                .map(mavenModule -> collectModules(mavenModule, Sets.newHashSet(submoduleInherited), modulesByPath, modules))
+                .forEach(module.submodules::add);
+        return module;
+    }
+
+    /**
+     * A Maven module, its node and the dependencies it inherits from its parents.
+     */
+    private static class MavenModule {
+        private final MavenProject mavenProject;
+        private final DependencyTree node;
+        // This set is used to make sure the dependencies added are unique between module and its parent
+        private final Set<String> added;
+        private final List<MavenModule> submodules = new ArrayList<>();
+
+        private MavenModule(MavenProject mavenProject, DependencyTree node, Set<String> added) {
+            this.mavenProject = mavenProject;
+            this.node = node;
+            this.added = added;
+        }
     }
 
     private void addMavenProjectDependencies(DependencyTree node, MavenProject mavenProject, Set<String> added) {
-        mavenProject.getDependencyTree()
-                .stream()
-                .filter(dependencyTree -> added.add(dependencyTree.getArtifact().getDisplayStringForLibraryName()))
-                .forEach(dependencyTree -> updateChildrenNodes(node, dependencyTree, added, true));
+        for (MavenArtifactNode dependencyTree : mavenProject.getDependencyTree()) {
+            if (added.add(dependencyTree.getArtifact().getDisplayStringForLibraryName())) {
+                updateChildrenNodes(node, dependencyTree, added, true);
+            }
+        }
     }
 
     /**
@@ -137,22 +224,49 @@ public class MavenScanManager extends ScanManager {
         return node;
     }
 
+    /**
+     * Populate recursively the dependency tree with the artifact and its dependencies.
+     *
+     * @param parentNode        - The parent node
+     * @param mavenArtifactNode - The Maven artifact to add
+     * @param added             - The ancestors of the artifact and the siblings preceding them, used to disallow
+     *                          duplications between a node and its ancestors. Instead of copying this set at every node,
+     *                          the node adds its children to the set and removes them after populating its subtree.
+     * @param setScopes         - True if the artifact is a direct dependency
+     */
     private void updateChildrenNodes(DependencyTree parentNode, MavenArtifactNode mavenArtifactNode, Set<String> added, boolean setScopes) {
-        // This set is used to disallow duplications between a node and its ancestors
-        final Set<String> addedInSubTree = Sets.newHashSet(added);
         MavenArtifact mavenArtifact = mavenArtifactNode.getArtifact();
         DependencyTree currentNode = new DependencyTree(mavenArtifact.getDisplayStringSimple());
         if (setScopes) {
             currentNode.setScopes(Sets.newHashSet(new Scope(mavenArtifact.getScope())));
         }
         populateDependencyTreeNode(currentNode);
-        mavenArtifactNode.getDependencies()
-                .stream()
-                .filter(dependencyTree -> addedInSubTree.add(dependencyTree.getArtifact().getDisplayStringForLibraryName()))
-                .forEach(childrenArtifactNode -> updateChildrenNodes(currentNode, childrenArtifactNode, addedInSubTree, false));
+        List<MavenArtifactNode> dependencies = mavenArtifactNode.getDependencies();
+        if (!dependencies.isEmpty()) {
+            List<String> addedInSubTree = new ArrayList<>(dependencies.size());
+            for (MavenArtifactNode childrenArtifactNode : dependencies) {
+                if (addIfAbsent(added, childrenArtifactNode.getArtifact().getDisplayStringForLibraryName(), addedInSubTree)) {
+                    updateChildrenNodes(currentNode, childrenArtifactNode, added, false);
+                }
+            }
+            addedInSubTree.forEach(added::remove);
+        }
         parentNode.add(currentNode);
     }
 
+    /**
+     * Add the key to the set if it is absent, and record it in the list of keys to remove later.
+     *
+     * @return true if the key was absent.
+     */
+    private static boolean addIfAbsent(Set<String> added, String key, List<String> addedKeys) {
+        if (!added.add(key)) {
+            return false;
+        }
+        addedKeys.add(key);
+        return true;
+    }
+
     /**
      * Maven projects tree listener for scanning artifacts on dependencies changes.
      */
@@ -0,0 +1,293 @@
+package com.jfrog.ide.idea.scan;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Sets;
+import org.apache.commons.lang3.StringUtils;
+import org.jfrog.build.extractor.scan.DependencyTree;
+import org.jfrog.build.extractor.scan.GeneralInfo;
+import org.jfrog.build.extractor.scan.Scope;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Build the npm dependency tree from the npm-shrinkwrap.json or package-lock.json file, without running npm.
+ * Supports lockfile versions 1, 2 and 3. The lockfile is bound directly from the input stream, skipping the fields
+ * which are not needed for the dependency tree.
+ * <p>
+ * Every occurrence of a package is expanded with its full subtree, so that the Xray issues of its transitive
+ * dependencies are aggregated under each occurrence. A package is not expanded again under its own subtree, which
+ * cuts circular dependencies.
+ */
+class NpmLockfileParser {
+    private static final String[] LOCKFILES = {"npm-shrinkwrap.json", "package-lock.json"};
+    private static final String NODE_MODULES = "node_modules/";
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path projectDir;
+
+    /**
+     * @param projectDir - The package.json directory
+     */
+    NpmLockfileParser(Path projectDir) {
+        this.projectDir = projectDir;
+    }
+
+    /**
+     * Find the lockfile of the project. As in npm, npm-shrinkwrap.json takes precedence over package-lock.json.
+     *
+     * @return the lockfile, or null if the project has no lockfile.
+     */
+    Path findLockfile() {
+        return Arrays.stream(LOCKFILES)
+                .map(projectDir::resolve)
+                .filter(Files::isRegularFile)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Build the dependency tree from the lockfile.
+     *
+     * @param lockfile - The npm-shrinkwrap.json or package-lock.json file
+     * @return the dependency tree.
+     * @throws IOException in case of an error while reading package.json or the lockfile.
+     */
+    DependencyTree buildTree(Path lockfile) throws IOException {
+        return buildTree(lockfile, Collections.emptyList());
+    }
+
+    /**
+     * Build the dependency tree of a workspaces project from the lockfile of the workspaces root.
+     * Each workspace is added as a child of the root project, with its own dependencies.
+     *
+     * @param lockfile      - The npm-shrinkwrap.json or package-lock.json file
+     * @param workspaceDirs - The workspaces directories
+     * @return the dependency tree.
+     * @throws IOException in case of an error while reading the package.json files or the lockfile.
+     */
+    DependencyTree buildTree(Path lockfile, List<Path> workspaceDirs) throws IOException {
+        PackageLock packageLock = read(lockfile, PackageLock.class);
+        if (packageLock.packages == null && (packageLock.dependencies == null || !workspaceDirs.isEmpty())) {
+            throw new IOException("Unsupported lockfile format: " + lockfile);
+        }
+        PackageJson packageJson = read(projectDir.resolve("package.json"), PackageJson.class);
+        DependencyTree root = createProjectNode(projectDir, packageJson);
+        if (packageLock.packages == null) {
+            new DependenciesResolver().populate(root, packageJson.getDirectDependencies(), packageLock.dependencies);
+            return root;
+        }
+        PackagesResolver packagesResolver = new PackagesResolver(packageLock.packages);
+        packagesResolver.populate(root, "", packageJson.getDirectDependencies());
+        for (Path workspaceDir : workspaceDirs) {
+            PackageJson workspacePackageJson = read(workspaceDir.resolve("package.json"), PackageJson.class);
+            DependencyTree workspace = createProjectNode(workspaceDir, workspacePackageJson);
+            String location = projectDir.relativize(workspaceDir).toString().replace('\\', '/');
+            packagesResolver.populate(workspace, location, workspacePackageJson.getDirectDependencies());
+            root.add(workspace);
+        }
+        return root;
+    }
+
+    private static DependencyTree createProjectNode(Path dir, PackageJson packageJson) {
+        String name = StringUtils.defaultIfBlank(packageJson.name, dir.getFileName().toString());
+        String version = StringUtils.defaultString(packageJson.version);
+        DependencyTree node = new DependencyTree(name);
+        node.setGeneralInfo(new GeneralInfo().artifactId(name).version(version).path(dir.toString()).pkgType("npm"));
+        return node;
+    }
+
+    private static <T> T read(Path path, Class<T> type) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            return mapper.readValue(inputStream, type);
+        }
+    }
+
+    private static DependencyTree createNode(String name, String version, boolean dev) {
+        DependencyTree node = new DependencyTree(name + ":" + version);
+        node.setScopes(Sets.newHashSet(new Scope(dev ? "development" : "production")));
+        return node;
+    }
+
+    /**
+     * Resolve dependencies of lockfile v2 and v3, where the packages are listed by their node_modules location.
+     */
+    private static class PackagesResolver {
+        private final Map<String, LockPackage> packages;
+
+        private PackagesResolver(Map<String, LockPackage> packages) {
+            this.packages = packages;
+        }
+
+        /**
+         * @param project            - The project or workspace node
+         * @param location           - The location of the project in the lockfile, relative to the lockfile directory
+         * @param directDependencies - The dependencies declared in the package.json of the project
+         */
+        private void populate(DependencyTree project, String location, Collection<String> directDependencies) {
+            for (String dependency : directDependencies) {
+                addDependency(project, location, dependency, new HashSet<>());
+            }
+        }
+
+        private void addDependency(DependencyTree parent, String parentLocation, String name, Set<String> ancestors) {
+            String location = resolve(parentLocation, name);
+            if (location == null || ancestors.contains(location)) {
+                // Not installed, for example an optional dependency of another platform, or circular dependency
+                return;
+            }
+            LockPackage lockPackage = packages.get(location);
+            if (lockPackage.link && lockPackage.resolved != null && packages.containsKey(lockPackage.resolved)) {
+                // A workspace or a 'file:' dependency
+                location = lockPackage.resolved;
+                lockPackage = packages.get(location);
+            }
+            DependencyTree node = createNode(name, StringUtils.defaultString(lockPackage.version), lockPackage.dev);
+            parent.add(node);
+            if (ancestors.contains(location)) {
+                // The link target is an ancestor
+                return;
+            }
+            ancestors.add(location);
+            for (String dependency : lockPackage.getDependencies()) {
+                addDependency(node, location, dependency, ancestors);
+            }
+            ancestors.remove(location);
+        }
+
+        /**
+         * Resolve a dependency like Node.js does - Look in the node_modules of the requiring package, and then in the
+         * node_modules of its ancestors.
+         *
+         * @param location - The location of the requiring package
+         * @param name     - The name of the dependency
+         * @return the location of the dependency, or null if not installed.
+         */
+        private String resolve(String location, String name) {
+            while (true) {
+                String candidate = (location.isEmpty() ? "" : location + "/") + NODE_MODULES + name;
+                if (packages.containsKey(candidate)) {
+                    return candidate;
+                }
+                if (location.isEmpty()) {
+                    return null;
+                }
+                int index = location.lastIndexOf(NODE_MODULES);
+                location = index <= 0 ? "" : StringUtils.removeEnd(location.substring(0, index), "/");
+            }
+        }
+    }
+
+    /**
+     * Resolve dependencies of lockfile v1, where the packages are nested by their node_modules hierarchy.
+     */
+    private static class DependenciesResolver {
+
+        private void populate(DependencyTree root, Collection<String> directDependencies, Map<String, LockDependency> dependencies) {
+            Deque<Map<String, LockDependency>> scopes = new ArrayDeque<>();
+            scopes.push(dependencies);
+            for (String dependency : directDependencies) {
+                addDependency(root, dependency, scopes, Sets.newIdentityHashSet());
+            }
+        }
+
+        /**
+         * @param scopes    - The nested dependencies maps of the requiring package and of its ancestors, innermost first
+         * @param ancestors - The packages in the path from the root, used to break cycles
+         */
+        private void addDependency(DependencyTree parent, String name, Deque<Map<String, LockDependency>> scopes, Set<LockDependency> ancestors) {
+            LockDependency dependency = null;
+            Iterator<Map<String, LockDependency>> scopesIterator = scopes.iterator();
+            int depth = 0;
+            while (dependency == null && scopesIterator.hasNext()) {
+                dependency = scopesIterator.next().get(name);
+                depth++;
+            }
+            if (dependency == null || ancestors.contains(dependency)) {
+                return;
+            }
+            DependencyTree node = createNode(name, StringUtils.defaultString(dependency.version), dependency.dev);
+            parent.add(node);
+            if (dependency.requires == null) {
+                return;
+            }
+            // The dependencies of the package are resolved from its own nested dependencies and then from the scope
+            // where the package was found
+            Deque<Map<String, LockDependency>> childScopes = new ArrayDeque<>(scopes);
+            for (int i = 1; i < depth; i++) {
+                childScopes.pop();
+            }
+            if (dependency.dependencies != null) {
+                childScopes.push(dependency.dependencies);
+            }
+            ancestors.add(dependency);
+            for (String child : dependency.requires.keySet()) {
+                addDependency(node, child, childScopes, ancestors);
+            }
+            ancestors.remove(dependency);
+        }
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public static class PackageJson {
+        public String name;
+        public String version;
+        public Map<String, String> dependencies;
+        public Map<String, String> devDependencies;
+        public Map<String, String> optionalDependencies;
+
+        private Set<String> getDirectDependencies() {
+            Set<String> names = new LinkedHashSet<>();
+            Arrays.asList(dependencies, optionalDependencies, devDependencies).stream()
+                    .filter(Objects::nonNull)
+                    .map(Map::keySet)
+                    .forEach(names::addAll);
+            return names;
+        }
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public static class PackageLock {
+        public Map<String, LockPackage> packages;
+        public Map<String, LockDependency> dependencies;
+    }
+
+    /**
+     * A package in the 'packages' section of lockfile v2 and v3.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static class LockPackage {
+        public String version;
+        public String resolved;
+        public boolean dev;
+        public boolean link;
+        public Map<String, String> dependencies;
+        public Map<String, String> optionalDependencies;
+        public Map<String, String> peerDependencies;
+
+        private Set<String> getDependencies() {
+            Set<String> names = new LinkedHashSet<>();
+            Arrays.asList(dependencies, optionalDependencies, peerDependencies).stream()
+                    .filter(Objects::nonNull)
+                    .map(Map::keySet)
+                    .forEach(names::addAll);
+            return names;
+        }
+    }
+
+    /**
+     * A package in the 'dependencies' section of lockfile v1.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static class LockDependency {
+        public String version;
+        public boolean dev;
+        public Map<String, String> requires;
+        public Map<String, LockDependency> dependencies;
+    }
+}
@@ -12,9 +12,15 @@ import com.jfrog.ide.common.scan.ComponentPrefix;
 import com.jfrog.ide.idea.inspections.NpmInspection;
 import com.jfrog.ide.idea.ui.ComponentsTree;
 import com.jfrog.ide.idea.ui.filters.filtermanager.ConsistentFilterManager;
+import org.jfrog.build.extractor.scan.DependencyTree;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Created by Yahav Itzhak on 13 Dec 2017.
@@ -22,38 +28,96 @@ import java.nio.file.Paths;
 public class NpmScanManager extends ScanManager {
 
     private final NpmTreeBuilder npmTreeBuilder;
+    private final NpmLockfileParser lockfileParser;
+    // The workspaces of a workspaces root. Scanned together with the root, as a single project.
+    private final List<Path> workspaceDirs;
 
     /**
-     * @param project  - Currently opened IntelliJ project. We'll use this project to retrieve project based services
-     *                 like {@link ConsistentFilterManager} and {@link ComponentsTree}.
-     * @param basePath - The package.json directory.
+     * @param project       - Currently opened IntelliJ project. We'll use this project to retrieve project based services
+     *                      like {@link ConsistentFilterManager} and {@link ComponentsTree}.
+     * @param basePath      - The package.json directory.
+     * @param workspaceDirs - The workspaces directories, if this is an npm or Yarn workspaces root.
      */
-    NpmScanManager(Project project, String basePath) throws IOException {
+    NpmScanManager(Project project, String basePath, List<Path> workspaceDirs) throws IOException {
         super(project, basePath, ComponentPrefix.NPM);
-        getLog().info("Found npm project: " + getProjectName());
+        this.workspaceDirs = workspaceDirs;
+        getLog().info("Found npm project: " + getProjectName() +
+                (workspaceDirs.isEmpty() ? "" : " with " + workspaceDirs.size() + " workspaces"));
         npmTreeBuilder = new NpmTreeBuilder(Paths.get(basePath), EnvironmentUtil.getEnvironmentMap());
+        lockfileParser = new NpmLockfileParser(Paths.get(basePath));
         subscribeLaunchDependencyScanOnFileChangedEvents("package-lock.json");
+        subscribeLaunchDependencyScanOnFileChangedEvents("npm-shrinkwrap.json");
     }
 
+    /**
+     * Build the dependency tree from the lockfile. Run 'npm ls' only if the project has no lockfile, or if the lockfile
+     * couldn't be parsed.
+     * The workspaces are added as children of the root project, so that the components they share are scanned once.
+     *
+     * @param shouldToast - True if should pop up a balloon when an error occurs.
+     * @throws IOException in case of an error while running 'npm ls'.
+     */
     @Override
     protected void buildTree(boolean shouldToast) throws IOException {
-        setScanResults(npmTreeBuilder.buildTree(getLog(), shouldToast));
+        Path lockfile = lockfileParser.findLockfile();
+        if (lockfile != null) {
+            try {
+                setScanResults(lockfileParser.buildTree(lockfile, workspaceDirs));
+                return;
+            } catch (IOException | RuntimeException e) {
+                getLog().debug("Couldn't parse " + lockfile + ": " + e.getMessage() + ". Running 'npm ls'.");
+            }
+        }
+        ExternalProcessService processService = ExternalProcessService.getInstance();
+        DependencyTree root = processService.run("'npm ls' in " + basePath, () -> npmTreeBuilder.buildTree(getLog(), shouldToast));
+        for (Path workspaceDir : workspaceDirs) {
+            checkCanceled();
+            NpmTreeBuilder workspaceTreeBuilder = new NpmTreeBuilder(workspaceDir, EnvironmentUtil.getEnvironmentMap());
+            DependencyTree workspaceTree = processService.run("'npm ls' in " + workspaceDir, () -> workspaceTreeBuilder.buildTree(getLog(), shouldToast));
+            NpmWorkspaces.addWorkspaceTree(root, workspaceTree, NpmWorkspaces.getPackageName(workspaceDir));
+        }
+        setScanResults(root);
+    }
+
+    /**
+     * @return the project path and the workspaces paths.
+     */
+    @Override
+    public Set<Path> getProjectPaths() {
+        Set<Path> paths = super.getProjectPaths();
+        paths.addAll(workspaceDirs);
+        return paths;
     }
 
     @Override
     protected PsiFile[] getProjectDescriptors() {
-        String packageJsonPath = Paths.get(basePath, "package.json").toString();
-        VirtualFile file = LocalFileSystem.getInstance().findFileByPath(packageJsonPath);
-        if (file == null) {
-            return null;
-        }
-        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
-        return new PsiFile[]{psiFile};
+        PsiManager psiManager = PsiManager.getInstance(project);
+        return Stream.concat(Stream.of(Paths.get(basePath)), workspaceDirs.stream())
+                .map(dir -> LocalFileSystem.getInstance().findFileByPath(dir.resolve("package.json").toString()))
+                .filter(Objects::nonNull)
+                .map(psiManager::findFile)
+                .filter(Objects::nonNull)
+                .toArray(PsiFile[]::new);
     }
 
     @Override
     protected LocalInspectionTool getInspectionTool() {
         return new NpmInspection();
     }
+
+    /**
+     * The subtree of a workspace is the workspace node under the root project.
+     */
+    @Override
+    protected DependencyTree getDescriptorTree(PsiFile descriptor, DependencyTree projectTree) {
+        VirtualFile dir = descriptor.getVirtualFile().getParent();
+        if (dir == null || workspaceDirs.isEmpty()) {
+            return projectTree;
+        }
+        return projectTree.getChildren().stream()
+                .filter(child -> child.getGeneralInfo() != null && dir.getPath().equals(child.getGeneralInfo().getPath()))
+                .findFirst()
+                .orElse(projectTree);
+    }
 }
 
@@ -0,0 +1,153 @@
+package com.jfrog.ide.idea.scan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jfrog.ide.idea.log.Logger;
+import org.apache.commons.lang3.StringUtils;
+import org.jfrog.build.extractor.scan.DependencyTree;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * Detect npm and Yarn workspaces, so that a workspaces monorepo is scanned once from its root directory, instead of
+ * once for each package.json.
+ */
+class NpmWorkspaces {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Group the package.json directories by their workspaces root.
+     * A directory which is a workspace of another directory is not returned as a key.
+     *
+     * @param packageJsonDirs - The package.json directories
+     * @return a map of the package.json directories to scan, to the directories of their workspaces.
+     */
+    static Map<String, List<Path>> groupWorkspaces(Set<String> packageJsonDirs) {
+        // Sort by depth, so that the workspaces roots are visited before their workspaces
+        List<Path> dirs = new ArrayList<>();
+        packageJsonDirs.stream().map(Paths::get).forEach(dirs::add);
+        dirs.sort(Comparator.comparingInt(Path::getNameCount).thenComparing(Comparator.naturalOrder()));
+
+        Map<String, List<Path>> projects = new LinkedHashMap<>();
+        Set<Path> workspaces = new HashSet<>();
+        for (Path dir : dirs) {
+            if (workspaces.contains(dir)) {
+                continue;
+            }
+            List<Path> workspaceDirs = new ArrayList<>();
+            try {
+                for (Path workspaceDir : getWorkspaceDirs(dir)) {
+                    // Respect the excluded paths
+                    if (packageJsonDirs.contains(workspaceDir.toString())) {
+                        workspaceDirs.add(workspaceDir);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                Logger.getInstance().debug("Couldn't read the workspaces of " + dir + ": " + e.getMessage());
+            }
+            workspaces.addAll(workspaceDirs);
+            projects.put(dir.toString(), workspaceDirs);
+        }
+        return projects;
+    }
+
+    /**
+     * Get the workspaces of a package.json directory. The workspaces are declared in the 'workspaces' field of
+     * package.json, either as an array of glob patterns, or in the 'packages' field of an object, as in Yarn.
+     * Patterns starting with '!' exclude directories.
+     *
+     * @param dir - The package.json directory
+     * @return the sorted workspaces directories, or an empty list if this is not a workspaces root.
+     * @throws IOException in case of an error while reading package.json or walking the directory.
+     */
+    static List<Path> getWorkspaceDirs(Path dir) throws IOException {
+        JsonNode workspacesNode;
+        try (InputStream inputStream = Files.newInputStream(dir.resolve("package.json"))) {
+            workspacesNode = mapper.readTree(inputStream).path("workspaces");
+        }
+        if (workspacesNode.isObject()) {
+            workspacesNode = workspacesNode.path("packages");
+        }
+        if (!workspacesNode.isArray() || workspacesNode.size() == 0) {
+            return Collections.emptyList();
+        }
+        List<PathMatcher> includes = new ArrayList<>();
+        List<PathMatcher> excludes = new ArrayList<>();
+        FileSystem fileSystem = dir.getFileSystem();
+        for (JsonNode patternNode : workspacesNode) {
+            String pattern = StringUtils.removeEnd(StringUtils.removeStart(patternNode.asText(), "./"), "/");
+            if (pattern.startsWith("!")) {
+                excludes.add(fileSystem.getPathMatcher("glob:" + StringUtils.removeStart(pattern.substring(1), "./")));
+            } else if (!pattern.isEmpty()) {
+                includes.add(fileSystem.getPathMatcher("glob:" + pattern));
+            }
+        }
+
+        List<Path> workspaceDirs = new ArrayList<>();
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path subDir, BasicFileAttributes attrs) {
+                if (subDir.equals(dir)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                String dirName = subDir.getFileName().toString();
+                if ("node_modules".equals(dirName) || dirName.startsWith(".")) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                Path relativePath = dir.relativize(subDir);
+                if (includes.stream().anyMatch(matcher -> matcher.matches(relativePath)) &&
+                        excludes.stream().noneMatch(matcher -> matcher.matches(relativePath)) &&
+                        Files.isRegularFile(subDir.resolve("package.json"))) {
+                    workspaceDirs.add(subDir);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Collections.sort(workspaceDirs);
+        return workspaceDirs;
+    }
+
+    /**
+     * Get the package name of a package.json directory.
+     *
+     * @param dir - The package.json directory
+     * @return the 'name' field of package.json, or the directory name if the field is missing.
+     * @throws IOException in case of an error while reading package.json.
+     */
+    static String getPackageName(Path dir) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(dir.resolve("package.json"))) {
+            String name = mapper.readTree(inputStream).path("name").asText();
+            return StringUtils.defaultIfBlank(name, dir.getFileName().toString());
+        }
+    }
+
+    /**
+     * Add the 'npm ls' tree of a workspace to the 'npm ls' tree of its workspaces root.
+     * Since npm 7, 'npm ls' at a workspaces root already lists the workspaces as dependencies of the root. These nodes
+     * are replaced by the workspace tree, which carries the workspace path.
+     *
+     * @param root          - The 'npm ls' tree of the workspaces root
+     * @param workspaceTree - The 'npm ls' tree of the workspace
+     * @param workspaceName - The package name of the workspace
+     */
+    static void addWorkspaceTree(DependencyTree root, DependencyTree workspaceTree, String workspaceName) {
+        List<DependencyTree> listed = new ArrayList<>();
+        for (DependencyTree child : root.getChildren()) {
+            String component = String.valueOf(child.getUserObject());
+            if (workspaceName.equals(component) || workspaceName.equals(StringUtils.substringBeforeLast(component, ":"))) {
+                listed.add(child);
+            }
+        }
+        listed.forEach(root::remove);
+        root.add(workspaceTree);
+    }
+}
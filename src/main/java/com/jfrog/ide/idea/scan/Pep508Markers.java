@@ -0,0 +1,255 @@
+package com.jfrog.ide.idea.scan;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.SystemUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluate PEP 508 environment markers, such as 'python_version < "3.8" and sys_platform == "win32"'.
+ * Extras are never installed by the plugin, so markers of extras evaluate to false.
+ */
+class Pep508Markers {
+    private final Map<String, String> environment;
+
+    /**
+     * @param environment - Marker variable name to its value, for example "python_version" -> "3.8"
+     */
+    Pep508Markers(Map<String, String> environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Create the marker environment of a local Python interpreter.
+     *
+     * @param pythonVersion - The full Python version, for example "3.8.5", or null if unknown
+     * @return the marker environment.
+     */
+    static Map<String, String> createEnvironment(String pythonVersion) {
+        Map<String, String> environment = new HashMap<>();
+        if (pythonVersion != null) {
+            String[] versionParts = StringUtils.split(pythonVersion, ".");
+            environment.put("python_full_version", pythonVersion);
+            environment.put("python_version", StringUtils.join(versionParts, ".", 0, Math.min(2, versionParts.length)));
+        }
+        environment.put("implementation_name", "cpython");
+        environment.put("platform_python_implementation", "CPython");
+        environment.put("extra", "");
+        if (SystemUtils.IS_OS_WINDOWS) {
+            environment.put("os_name", "nt");
+            environment.put("sys_platform", "win32");
+            environment.put("platform_system", "Windows");
+        } else if (SystemUtils.IS_OS_MAC) {
+            environment.put("os_name", "posix");
+            environment.put("sys_platform", "darwin");
+            environment.put("platform_system", "Darwin");
+        } else {
+            environment.put("os_name", "posix");
+            environment.put("sys_platform", "linux");
+            environment.put("platform_system", "Linux");
+        }
+        String arch = SystemUtils.OS_ARCH;
+        environment.put("platform_machine", StringUtils.equalsAny(arch, "amd64", "x86_64") ?
+                (SystemUtils.IS_OS_WINDOWS ? "AMD64" : "x86_64") : arch);
+        return environment;
+    }
+
+    /**
+     * Evaluate the markers.
+     *
+     * @param markers - The markers, i.e. the part after the ';' in a requirement
+     * @return true if the markers match the environment or if they can't be parsed.
+     */
+    boolean evaluate(String markers) {
+        if (StringUtils.isBlank(markers)) {
+            return true;
+        }
+        try {
+            return new Parser(tokenize(markers)).parse();
+        } catch (IllegalArgumentException e) {
+            // Unknown syntax - Keep the requirement
+            return true;
+        }
+    }
+
+    /**
+     * Compare the numeric release segments of two versions. Non-numeric suffixes are ignored.
+     */
+    static int compareVersions(String left, String right) {
+        String[] leftParts = StringUtils.split(left, ".");
+        String[] rightParts = StringUtils.split(right, ".");
+        for (int i = 0; i < Math.max(leftParts.length, rightParts.length); i++) {
+            int leftPart = i < leftParts.length ? parseLeadingInt(leftParts[i]) : 0;
+            int rightPart = i < rightParts.length ? parseLeadingInt(rightParts[i]) : 0;
+            if (leftPart != rightPart) {
+                return Integer.compare(leftPart, rightPart);
+            }
+        }
+        return 0;
+    }
+
+    private static int parseLeadingInt(String part) {
+        String digits = part.replaceFirst("^(\\d*).*$", "$1");
+        return digits.isEmpty() ? 0 : Integer.parseInt(digits);
+    }
+
+    private static boolean isVersion(String value) {
+        return value.matches("\\d+(\\.\\d+)*");
+    }
+
+    /**
+     * Recursive descent parser of a single markers expression.
+     */
+    private class Parser {
+        private final List<String> tokens;
+        private int position;
+
+        private Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        private boolean parse() {
+            boolean result = parseOr();
+            // Keep the requirement if the markers were not fully parsed
+            return position != tokens.size() || result;
+        }
+
+        private boolean parseOr() {
+            boolean result = parseAnd();
+            while ("or".equals(peek())) {
+                position++;
+                // Evaluate both sides to consume the tokens
+                boolean right = parseAnd();
+                result = result || right;
+            }
+            return result;
+        }
+
+        private boolean parseAnd() {
+            boolean result = parseAtom();
+            while ("and".equals(peek())) {
+                position++;
+                boolean right = parseAtom();
+                result = result && right;
+            }
+            return result;
+        }
+
+        private boolean parseAtom() {
+            if ("(".equals(peek())) {
+                position++;
+                boolean result = parseOr();
+                expect(")");
+                return result;
+            }
+            String left = parseValue();
+            String operator = next();
+            if ("not".equals(operator)) {
+                expect("in");
+                operator = "not in";
+            }
+            String right = parseValue();
+            return compare(left, operator, right);
+        }
+
+        private String parseValue() {
+            String token = next();
+            if (token.startsWith("\"") || token.startsWith("'")) {
+                return token.substring(1, token.length() - 1);
+            }
+            if (!environment.containsKey(token)) {
+                throw new IllegalArgumentException("Unknown marker variable: " + token);
+            }
+            return environment.get(token);
+        }
+
+        private String peek() {
+            return position < tokens.size() ? tokens.get(position) : null;
+        }
+
+        private String next() {
+            if (position >= tokens.size()) {
+                throw new IllegalArgumentException("Unexpected end of markers");
+            }
+            return tokens.get(position++);
+        }
+
+        private void expect(String token) {
+            if (!token.equals(next())) {
+                throw new IllegalArgumentException("Expected " + token);
+            }
+        }
+    }
+
+    private static boolean compare(String left, String operator, String right) {
+        switch (operator) {
+            case "in":
+                return right.contains(left);
+            case "not in":
+                return !right.contains(left);
+            case "===":
+                return left.equals(right);
+            case "==":
+                return isVersion(left) && isVersion(right) ? compareVersions(left, right) == 0 : left.equals(right);
+            case "!=":
+                return isVersion(left) && isVersion(right) ? compareVersions(left, right) != 0 : !left.equals(right);
+            case "~=":
+                return compareVersions(left, right) >= 0 && compareVersions(left, StringUtils.substringBeforeLast(right, ".") + ".99999") <= 0;
+        }
+        int comparison = compareVersions(left, right);
+        switch (operator) {
+            case "<":
+                return comparison < 0;
+            case "<=":
+                return comparison <= 0;
+            case ">":
+                return comparison > 0;
+            case ">=":
+                return comparison >= 0;
+            default:
+                throw new IllegalArgumentException("Unknown marker operator: " + operator);
+        }
+    }
+
+    private static List<String> tokenize(String markers) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < markers.length()) {
+            char c = markers.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '"' || c == '\'') {
+                int end = markers.indexOf(c, i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated string");
+                }
+                tokens.add(markers.substring(i, end + 1));
+                i = end + 1;
+            } else if ("<>=!~".indexOf(c) >= 0) {
+                int end = i;
+                while (end < markers.length() && "<>=!~".indexOf(markers.charAt(end)) >= 0) {
+                    end++;
+                }
+                tokens.add(markers.substring(i, end));
+                i = end;
+            } else {
+                int end = i;
+                while (end < markers.length() && (Character.isLetterOrDigit(markers.charAt(end)) || markers.charAt(end) == '_' || markers.charAt(end) == '.')) {
+                    end++;
+                }
+                if (end == i) {
+                    throw new IllegalArgumentException("Unexpected character: " + c);
+                }
+                tokens.add(markers.substring(i, end));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+}
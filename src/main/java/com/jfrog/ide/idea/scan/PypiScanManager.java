@@ -3,10 +3,12 @@ package com.jfrog.ide.idea.scan;
 import com.google.common.collect.Sets;
 import com.intellij.codeInspection.LocalInspectionTool;
 import com.intellij.execution.ExecutionException;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.projectRoots.Sdk;
+import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.psi.PsiFile;
-import com.jetbrains.python.packaging.PyPackage;
 import com.jetbrains.python.packaging.PyPackageManager;
 import com.jetbrains.python.packaging.PyPackageUtil;
 import com.jetbrains.python.packaging.PyRequirement;
@@ -21,7 +23,9 @@ import org.jfrog.build.extractor.scan.GeneralInfo;
 import org.jfrog.build.extractor.scan.Scope;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static com.jfrog.ide.common.log.Utils.logError;
@@ -31,9 +35,34 @@ import static com.jfrog.ide.common.log.Utils.logError;
  */
 public class PypiScanManager extends ScanManager {
     private final Sdk pythonSdk;
+    // The packages of the SDK and the fingerprint of its site-packages directories when the packages were listed.
+    // Guarded by 'this'.
+    private List<PythonPackage> cachedPackages;
+    private String cachedPackagesFingerprint;
 
-    static List<Sdk> getAllPythonSdks() {
-        return PythonSdkUtil.getAllSdks();
+    /**
+     * Get the Python SDKs to scan.
+     *
+     * @param project - The project
+     * @param allSdks - True to get all Python SDKs configured in the IDE
+     * @return the Python SDKs of the project modules and the project SDK, or all Python SDKs if requested.
+     */
+    static List<Sdk> getPythonSdks(Project project, boolean allSdks) {
+        if (allSdks) {
+            return PythonSdkUtil.getAllSdks();
+        }
+        Set<Sdk> pythonSdks = new LinkedHashSet<>();
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            Sdk pythonSdk = PythonSdkUtil.findPythonSdk(module);
+            if (pythonSdk != null) {
+                pythonSdks.add(pythonSdk);
+            }
+        }
+        Sdk projectSdk = ProjectRootManager.getInstance(project).getProjectSdk();
+        if (projectSdk != null && PythonSdkUtil.isPythonSdk(projectSdk)) {
+            pythonSdks.add(projectSdk);
+        }
+        return new ArrayList<>(pythonSdks);
     }
 
     /**
@@ -47,6 +76,15 @@ public class PypiScanManager extends ScanManager {
         PyPackageUtil.runOnChangeUnderInterpreterPaths(pythonSdk, this.project, this::asyncScanAndUpdateResults);
     }
 
+    /**
+     * Make the next scan read the packages of the SDK again, even if the site-packages directories didn't change.
+     * Used on manual refresh.
+     */
+    synchronized void invalidatePackages() {
+        cachedPackages = null;
+        cachedPackagesFingerprint = null;
+    }
+
     @Override
     protected void buildTree(boolean shouldToast) {
         DependencyTree rootNode = createRootNode();
@@ -84,8 +122,7 @@ public class PypiScanManager extends ScanManager {
      */
     private DependencyTree createSdkDependencyTree(Sdk pythonSdk) throws ExecutionException {
         // Retrieve all Pypi packages
-        PyPackageManager packageManager = PyPipEnvPackageManager.getInstance(pythonSdk);
-        List<PyPackage> packages = packageManager.refreshAndGetPackages(true);
+        List<PythonPackage> packages = getPackages(pythonSdk);
         getLog().debug(CollectionUtils.size(packages) + " Pypi packages found in SDK " + pythonSdk.getName());
 
         // Create root SDK node
@@ -93,24 +130,24 @@ public class PypiScanManager extends ScanManager {
         initDependencyNode(sdkNode, pythonSdk.getName(), pythonSdk.getVersionString(), pythonSdk.getHomePath(), "Python SDK");
 
         // Create dependency mapping
-        Map<String, PyPackage> dependencyMapping = new HashMap<>();
-        for (PyPackage pyPackage : packages) {
-            dependencyMapping.put(pyPackage.getName().toLowerCase(), pyPackage);
+        Map<String, PythonPackage> dependencyMapping = new HashMap<>();
+        for (PythonPackage pyPackage : packages) {
+            dependencyMapping.put(PythonPackage.normalizeName(pyPackage.getName()), pyPackage);
         }
 
         // Populate dependency tree
-        Collection<PyPackage> values = dependencyMapping.values();
+        Map<String, DependencyTree> subtrees = new HashMap<>();
+        Collection<PythonPackage> values = dependencyMapping.values();
         Set<String> allDependencies = values.parallelStream()
-                .map(PyPackage::getRequirements)
+                .map(PythonPackage::getRequirements)
                 .flatMap(Collection::stream)
-                .map(PyRequirement::getName)
-                .map(String::toLowerCase)
+                .map(PythonPackage::normalizeName)
                 .collect(Collectors.toSet());
-        for (PyPackage pyPackage : values) {
+        for (PythonPackage pyPackage : values) {
             // If pyPackage is contained in one of the dependencies, we conclude it is a transitive dependency.
             // If it's transitive, we shouldn't add it as a direct dependency.
-            if (!allDependencies.contains(pyPackage.getName().toLowerCase())) {
-                populateDependencyTree(sdkNode, pyPackage, dependencyMapping);
+            if (!allDependencies.contains(PythonPackage.normalizeName(pyPackage.getName()))) {
+                sdkNode.add(getPackageSubtree(pyPackage, dependencyMapping, subtrees, new HashSet<>(), new AtomicInteger()));
             }
         }
 
@@ -118,26 +155,113 @@ public class PypiScanManager extends ScanManager {
     }
 
     /**
-     * Recursively, populate the SDK dependency tree.
+     * Get the packages installed in the Python SDK.
+     * The packages are read from the metadata in the site-packages directories. If the metadata can't be read, the
+     * packages are listed by the Python package manager, which runs the interpreter.
+     * The packages are cached until the site-packages directories change, or until {@link #invalidatePackages()}.
+     *
+     * @param pythonSdk - The python SDK
+     * @return the packages installed in the Python SDK.
+     */
+    private List<PythonPackage> getPackages(Sdk pythonSdk) throws ExecutionException {
+        List<Path> sitePackagesDirs = SitePackages.getSitePackagesDirs(pythonSdk);
+        String fingerprint = null;
+        try {
+            fingerprint = SitePackages.getFingerprint(sitePackagesDirs);
+        } catch (IOException e) {
+            getLog().debug("Couldn't calculate the site-packages fingerprint of " + pythonSdk.getName() + ": " + e.getMessage());
+        }
+        synchronized (this) {
+            if (fingerprint != null && fingerprint.equals(cachedPackagesFingerprint)) {
+                getLog().debug("No changes in the packages of " + pythonSdk.getName() + " since the last scan");
+                return cachedPackages;
+            }
+        }
+        List<PythonPackage> packages = null;
+        if (!sitePackagesDirs.isEmpty()) {
+            try {
+                packages = new SitePackagesReader(pythonSdk.getVersionString()).readPackages(sitePackagesDirs);
+            } catch (IOException e) {
+                getLog().debug("Couldn't read the site-packages metadata of " + pythonSdk.getName() + ": " + e.getMessage());
+            }
+        }
+        if (CollectionUtils.isEmpty(packages)) {
+            packages = listPackages(pythonSdk);
+        }
+        synchronized (this) {
+            cachedPackages = packages;
+            cachedPackagesFingerprint = fingerprint;
+        }
+        return packages;
+    }
+
+    /**
+     * List the packages installed in the Python SDK using the Python package manager.
+     *
+     * @param pythonSdk - The python SDK
+     * @return the packages installed in the Python SDK.
+     */
+    private List<PythonPackage> listPackages(Sdk pythonSdk) throws ExecutionException {
+        PyPackageManager packageManager = PyPipEnvPackageManager.getInstance(pythonSdk);
+        return packageManager.refreshAndGetPackages(true).stream()
+                .map(pyPackage -> new PythonPackage(pyPackage.getName(), pyPackage.getVersion(), pyPackage.isInstalled(),
+                        pyPackage.getRequirements().stream().map(PyRequirement::getName).collect(Collectors.toList())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the dependency subtree of a Python package.
+     * The requirements of each package are resolved once, and its subtree is reused by the other occurrences of the
+     * package. Since a tree node can't have more than one parent, the first occurrence gets the built subtree and the
+     * other occurrences get a full copy of it, so the size of the tree is unchanged.
+     * A subtree built while a circular dependency was cut depends on the path it was built under, so it is not reused.
      *
-     * @param node              - Dependency tree node
      * @param pyPackage         - Current Python package
-     * @param dependencyMapping - dependency name to Python package mapping
+     * @param dependencyMapping - Dependency name to Python package mapping
+     * @param subtrees          - Normalized package name to its reusable subtree
+     * @param path              - Normalized names of the packages in the path from the SDK node, used to break cycles
+     * @param cycleCuts         - Number of circular dependencies cut so far
+     * @return the dependency subtree of the package.
      */
-    void populateDependencyTree(DependencyTree node, PyPackage pyPackage, Map<String, PyPackage> dependencyMapping) {
+    private DependencyTree getPackageSubtree(PythonPackage pyPackage, Map<String, PythonPackage> dependencyMapping,
+                                             Map<String, DependencyTree> subtrees, Set<String> path, AtomicInteger cycleCuts) {
+        String name = PythonPackage.normalizeName(pyPackage.getName());
+        DependencyTree subtree = subtrees.get(name);
+        if (subtree != null) {
+            return subtree.getParent() == null ? subtree : DependencyTreeDiff.copyTree(subtree);
+        }
+        int cycleCutsBefore = cycleCuts.get();
+        subtree = createPackageSubtree(pyPackage, dependencyMapping, subtrees, path, cycleCuts);
+        if (cycleCuts.get() == cycleCutsBefore) {
+            subtrees.put(name, subtree);
+        }
+        return subtree;
+    }
+
+    private DependencyTree createPackageSubtree(PythonPackage pyPackage, Map<String, PythonPackage> dependencyMapping,
+                                                Map<String, DependencyTree> subtrees, Set<String> path, AtomicInteger cycleCuts) {
         String unresolved = pyPackage.isInstalled() ? "" : " [Unresolved]";
-        DependencyTree child = new DependencyTree(pyPackage.getName() + ":" + pyPackage.getVersion() + unresolved);
-        initDependencyNode(child, pyPackage.getName(), pyPackage.getVersion(), "", "pypi");
-        node.add(child);
+        DependencyTree node = new DependencyTree(pyPackage.getName() + ":" + pyPackage.getVersion() + unresolved);
+        initDependencyNode(node, pyPackage.getName(), pyPackage.getVersion(), "", "pypi");
 
-        for (PyRequirement requirement : pyPackage.getRequirements()) {
-            PyPackage dependency = dependencyMapping.get(requirement.getName().toLowerCase());
+        String name = PythonPackage.normalizeName(pyPackage.getName());
+        path.add(name);
+        for (String requirement : pyPackage.getRequirements()) {
+            String requirementName = PythonPackage.normalizeName(requirement);
+            PythonPackage dependency = dependencyMapping.get(requirementName);
             if (dependency == null) {
-                getLog().warn("Dependency " + requirement.getName() + " is not installed.");
+                getLog().warn("Dependency " + requirement + " is not installed.");
+                continue;
+            }
+            if (path.contains(requirementName)) {
+                getLog().debug("Skipping circular dependency " + pyPackage.getName() + " -> " + requirement);
+                cycleCuts.incrementAndGet();
                 continue;
             }
-            populateDependencyTree(child, dependency, dependencyMapping);
+            node.add(getPackageSubtree(dependency, dependencyMapping, subtrees, path, cycleCuts));
         }
+        path.remove(name);
+        return node;
     }
 
     /**
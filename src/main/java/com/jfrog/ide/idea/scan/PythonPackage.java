@@ -0,0 +1,48 @@
+package com.jfrog.ide.idea.scan;
+
+import java.util.List;
+
+/**
+ * A Python package installed in a Python SDK.
+ */
+class PythonPackage {
+    private final String name;
+    private final String version;
+    private final boolean installed;
+    // The names of the required packages
+    private final List<String> requirements;
+
+    PythonPackage(String name, String version, boolean installed, List<String> requirements) {
+        this.name = name;
+        this.version = version;
+        this.installed = installed;
+        this.requirements = requirements;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getVersion() {
+        return version;
+    }
+
+    boolean isInstalled() {
+        return installed;
+    }
+
+    List<String> getRequirements() {
+        return requirements;
+    }
+
+    /**
+     * Normalize a package name as described in PEP 503, so that 'PyYAML', 'ruamel.yaml' and 'ruamel_yaml' can be
+     * matched to their requirements.
+     *
+     * @param name - The package name
+     * @return the normalized package name.
+     */
+    static String normalizeName(String name) {
+        return name.replaceAll("[-_.]+", "-").toLowerCase();
+    }
+}
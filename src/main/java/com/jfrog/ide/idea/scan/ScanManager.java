@@ -1,25 +1,18 @@
 package com.jfrog.ide.idea.scan;
 
 import com.google.common.collect.Sets;
-import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
-import com.intellij.codeInspection.GlobalInspectionContext;
-import com.intellij.codeInspection.InspectionEngine;
-import com.intellij.codeInspection.InspectionManager;
 import com.intellij.codeInspection.LocalInspectionTool;
-import com.intellij.codeInspection.ex.InspectionManagerEx;
-import com.intellij.codeInspection.ex.LocalInspectionToolWrapper;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
-import com.intellij.openapi.fileEditor.FileEditor;
-import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.progress.ProgressManager;
-import com.intellij.openapi.progress.Task;
-import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
 import com.intellij.openapi.vfs.VirtualFileManager;
 import com.intellij.openapi.vfs.newvfs.BulkFileListener;
 import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
 import com.intellij.psi.PsiFile;
+import com.intellij.util.Alarm;
 import com.intellij.util.messages.MessageBus;
 import com.intellij.util.messages.MessageBusConnection;
 import com.jfrog.ide.common.log.ProgressIndicator;
@@ -30,27 +23,26 @@ import com.jfrog.ide.idea.configuration.GlobalSettings;
 import com.jfrog.ide.idea.events.ApplicationEvents;
 import com.jfrog.ide.idea.events.ProjectEvents;
 import com.jfrog.ide.idea.log.Logger;
-import com.jfrog.ide.idea.log.ProgressIndicatorImpl;
 import com.jfrog.ide.idea.ui.ComponentsTree;
 import com.jfrog.ide.idea.ui.LocalComponentsTree;
 import com.jfrog.ide.idea.ui.filters.filtermanager.ConsistentFilterManager;
 import com.jfrog.ide.idea.ui.filters.filtermanager.LocalFilterManager;
+import com.jfrog.ide.idea.utils.Utils;
 import com.jfrog.xray.client.services.summary.Components;
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang3.ArrayUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jfrog.build.extractor.scan.DependencyTree;
 import org.jfrog.build.extractor.scan.License;
 import org.jfrog.build.extractor.scan.Scope;
 
-import javax.swing.*;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.TimeUnit;
 
 import static com.jfrog.ide.common.log.Utils.logError;
 
@@ -59,12 +51,29 @@ import static com.jfrog.ide.common.log.Utils.logError;
  */
 public abstract class ScanManager extends ScanManagerBase {
 
-    private static final Path HOME_PATH = Paths.get(System.getProperty("user.home"), ".jfrog-idea-plugin");
+    static final Path HOME_PATH = Paths.get(System.getProperty("user.home"), ".jfrog-idea-plugin");
+    static final Path SNAPSHOTS_PATH = HOME_PATH.resolve("snapshots");
+    // Time to wait for more scan triggers before starting the scan
+    private static final int SCAN_TRIGGER_QUIET_PERIOD_MILLIS = 2000;
+    // Maximal age of the Xray info reused by incremental scans. Older info is refreshed by a full scan.
+    private static final long XRAY_INFO_MAX_AGE_MILLIS = TimeUnit.HOURS.toMillis(24);
     protected Project project;
     String basePath;
+    private final ComponentPrefix prefix;
 
-    // Lock to prevent multiple simultaneous scans
-    private final AtomicBoolean scanInProgress = new AtomicBoolean(false);
+    // Disposed when the scan manager is dropped by the ScanManagersFactory, or when the project is closed
+    private final Disposable disposable = Disposer.newDisposable();
+    // Coalesce bursts of scan triggers into a single scan
+    private final Alarm scanTriggerAlarm;
+    // Copy of the dependency tree of the last published scan, including Xray info
+    private DependencyTree lastScanResults;
+    // Time of the full scan which produced the Xray info of 'lastScanResults'
+    private long lastScanResultsTime;
+    // Generation of the latest scan request. Guarded by 'scanGenerationLock'.
+    private long scanGeneration;
+    // True while a scan is running. The ScanScheduler runs one scan at a time. Guarded by 'scanGenerationLock'.
+    private boolean scanning;
+    private final Object scanGenerationLock = new Object();
 
     /**
      * @param project  - Currently opened IntelliJ project. We'll use this project to retrieve project based services
@@ -76,6 +85,9 @@ public abstract class ScanManager extends ScanManagerBase {
         super(HOME_PATH.resolve("cache"), basePath, Logger.getInstance(), GlobalSettings.getInstance().getServerConfig(), prefix);
         this.project = project;
         this.basePath = basePath;
+        this.prefix = prefix;
+        Disposer.register(project, disposable);
+        this.scanTriggerAlarm = new Alarm(Alarm.ThreadToUse.POOLED_THREAD, disposable);
         Files.createDirectories(HOME_PATH);
         registerOnChangeHandlers();
     }
@@ -95,6 +107,18 @@ public abstract class ScanManager extends ScanManagerBase {
      */
     protected abstract PsiFile[] getProjectDescriptors();
 
+    /**
+     * Get the subtree of the dependency tree, which the inspections of the project descriptor depend on.
+     * Used to skip inspecting project descriptors whose subtree did not change.
+     *
+     * @param descriptor  - A project descriptor of this scan manager
+     * @param projectTree - The dependency tree of this scan manager, as displayed in the components tree
+     * @return the subtree of the project descriptor, or null if not found.
+     */
+    protected DependencyTree getDescriptorTree(PsiFile descriptor, DependencyTree projectTree) {
+        return projectTree;
+    }
+
     /**
      * Return the Inspection tool corresponding to the scan-manager type.
      * The returned Inspection tool is used to perform the inspection on the project-descriptor files.
@@ -105,59 +129,193 @@ public abstract class ScanManager extends ScanManagerBase {
 
     /**
      * Scan and update dependency components.
+     * Called by the {@link ScanScheduler} on a background thread. The scheduler never runs two scans of the same scan
+     * manager simultaneously.
+     * The results are published only if no newer scan was requested while scanning.
+     *
+     * @param quickScan - True to allow usage of the scan cache
+     * @param indicator - The progress indicator
      */
-    private void scanAndUpdate(boolean quickScan, ProgressIndicator indicator) {
+    void scanAndUpdate(boolean quickScan, ProgressIndicator indicator) {
+        if (isDisposed()) {
+            return;
+        }
+        long generation;
+        synchronized (scanGenerationLock) {
+            generation = scanGeneration;
+            scanning = true;
+        }
         try {
             buildTree(!quickScan);
-            scanAndCacheArtifacts(indicator, quickScan);
-            addXrayInfoToTree(getScanResults());
-            setScanResults();
-            DumbService.getInstance(project).smartInvokeLater(this::runInspections);
+            checkCanceled();
+            DependencyTree scanResults = getScanResults();
+            long xrayInfoTime = System.currentTimeMillis();
+            if (quickScan && scanResults != null && isLastScanResultsReusable()) {
+                incrementalScan(scanResults, indicator);
+                // The reused Xray info is as old as the last full scan
+                xrayInfoTime = lastScanResultsTime;
+            } else {
+                scanAndCacheArtifacts(indicator, quickScan);
+                addXrayInfoToTree(scanResults);
+            }
+            if (!publishScanResults(generation, scanResults, xrayInfoTime)) {
+                getLog().debug("Dropping the results of an outdated Xray scan of " + getProjectName());
+                return;
+            }
+            saveSnapshot();
+            runInspections();
         } catch (ProcessCanceledException e) {
+            if (generation != getScanGeneration()) {
+                getLog().debug("Xray scan of " + getProjectName() + " was superseded by a newer scan");
+                return;
+            }
             getLog().info("Xray scan was canceled");
         } catch (Exception e) {
             logError(getLog(), "Xray Scan failed", e, !quickScan);
         } finally {
-            scanInProgress.set(false);
+            synchronized (scanGenerationLock) {
+                scanning = false;
+            }
         }
     }
 
     /**
-     * Launch async dependency scan.
+     * @return true if the Xray info of the last scan results is recent enough to be reused by an incremental scan.
      */
-    void asyncScanAndUpdateResults(boolean quickScan) {
-        if (DumbService.isDumb(project)) { // If intellij is still indexing the project
+    private boolean isLastScanResultsReusable() {
+        return lastScanResults != null && System.currentTimeMillis() - lastScanResultsTime < XRAY_INFO_MAX_AGE_MILLIS;
+    }
+
+    /**
+     * Scan only the components added since the last scan.
+     * The Xray info of the unchanged components is taken from the last scan results, and the changed subtrees are
+     * scanned and populated separately, as a standalone tree. The standalone tree is scanned by a local
+     * {@link ChangedSubtreesScanner}, so that the scan results of this scan manager are never replaced by the partial
+     * tree, even temporarily.
+     *
+     * @param scanResults - The newly built dependency tree
+     * @param indicator   - The progress indicator
+     */
+    private void incrementalScan(DependencyTree scanResults, ProgressIndicator indicator) throws IOException, InterruptedException {
+        List<DependencyTree> changedSubtrees = DependencyTreeDiff.reuseXrayInfo(lastScanResults, scanResults);
+        if (changedSubtrees.isEmpty()) {
             return;
         }
-        Task.Backgroundable scanAndUpdateTask = new Task.Backgroundable(null, "Xray: Scanning for vulnerabilities...") {
-            @Override
-            public void run(@NotNull com.intellij.openapi.progress.ProgressIndicator indicator) {
-                if (project.isDisposed()) {
-                    return;
-                }
-                if (!GlobalSettings.getInstance().areXrayCredentialsSet()) {
-                    getLog().warn("Xray server is not configured.");
-                    return;
-                }
-                // Prevent multiple simultaneous scans
-                if (!scanInProgress.compareAndSet(false, true)) {
-                    if (!quickScan) {
-                        getLog().info("Scan already in progress");
-                    }
-                    return;
-                }
-                scanAndUpdate(quickScan, new ProgressIndicatorImpl(indicator));
+        DependencyTree changedRoot = new DependencyTree(scanResults.getUserObject());
+        changedRoot.setGeneralInfo(scanResults.getGeneralInfo());
+        changedSubtrees.stream().map(DependencyTreeDiff::copyTree).forEach(changedRoot::add);
+        new ChangedSubtreesScanner(changedRoot).scan(indicator);
+        for (int i = 0; i < changedSubtrees.size(); i++) {
+            DependencyTreeDiff.copyXrayInfo((DependencyTree) changedRoot.getChildAt(i), changedSubtrees.get(i));
+        }
+    }
+
+    /**
+     * Publish the scan results to the components tree, unless a newer scan was requested after the scan started.
+     *
+     * @param generation   - The scan generation at the beginning of the scan
+     * @param scanResults  - The scan results, used as the base of the next incremental scan
+     * @param xrayInfoTime - The time of the full scan which produced the Xray info of the scan results
+     * @return true if the scan results were published.
+     */
+    private boolean publishScanResults(long generation, DependencyTree scanResults, long xrayInfoTime) {
+        synchronized (scanGenerationLock) {
+            if (generation != scanGeneration) {
+                return false;
             }
-        };
-        // The progress manager is only good for foreground threads.
-        if (SwingUtilities.isEventDispatchThread()) {
-            ProgressManager.getInstance().run(scanAndUpdateTask);
-        } else {
-            // Run the scan task when the thread is in the foreground.
-            ApplicationManager.getApplication().invokeLater(() -> ProgressManager.getInstance().run(scanAndUpdateTask));
+            lastScanResults = DependencyTreeDiff.copyTree(scanResults);
+            lastScanResultsTime = xrayInfoTime;
+            setScanResults();
+            return true;
         }
     }
 
+    /**
+     * Display the scan results of the last scan before the IDE was closed, until a new scan is done.
+     * The restored results are for display only. The Xray info in the snapshot may be outdated, so they are not used
+     * as the base for incremental scans, and the first scan after the IDE starts is a full scan.
+     * Do nothing if this scan manager already has scan results, or if a scan was started or requested while the
+     * snapshot was loaded. A scan is never delayed or dropped by the restore.
+     */
+    void restoreSnapshot() {
+        long generation;
+        synchronized (scanGenerationLock) {
+            if (lastScanResults != null) {
+                return;
+            }
+            generation = scanGeneration;
+        }
+        DependencyTree snapshot;
+        try {
+            snapshot = ScanSnapshot.load(getSnapshotPath());
+        } catch (IOException | RuntimeException e) {
+            getLog().debug("Couldn't load the scan results snapshot of " + getProjectName() + ": " + e.getMessage());
+            return;
+        }
+        if (snapshot == null) {
+            return;
+        }
+        synchronized (scanGenerationLock) {
+            if (scanning || generation != scanGeneration || lastScanResults != null) {
+                return;
+            }
+            setScanResults(snapshot);
+            // Publish without setting the last scan results
+            setScanResults();
+        }
+        runInspections();
+    }
+
+    private void saveSnapshot() {
+        if (lastScanResults == null) {
+            return;
+        }
+        try {
+            ScanSnapshot.save(getSnapshotPath(), lastScanResults);
+        } catch (IOException | RuntimeException e) {
+            getLog().debug("Couldn't save the scan results snapshot of " + getProjectName() + ": " + e.getMessage());
+        }
+    }
+
+    private Path getSnapshotPath() {
+        int identifier = Utils.getProjectIdentifier(getClass().getSimpleName(), basePath);
+        return SNAPSHOTS_PATH.resolve(Integer.toHexString(identifier) + ".json.gz");
+    }
+
+    private long getScanGeneration() {
+        synchronized (scanGenerationLock) {
+            return scanGeneration;
+        }
+    }
+
+    /**
+     * Mark the running scan, if any, as outdated. An outdated scan never publishes its results.
+     * Called by the {@link ScanScheduler} when a new scan is requested.
+     */
+    void supersedeScan() {
+        synchronized (scanGenerationLock) {
+            scanGeneration++;
+        }
+    }
+
+    /**
+     * Stop the scan triggers of this scan manager. Called when the scan manager is dropped.
+     */
+    void dispose() {
+        Disposer.dispose(disposable);
+    }
+
+    boolean isDisposed() {
+        return Disposer.isDisposed(disposable);
+    }
+
+    /**
+     * Launch async dependency scan.
+     */
+    void asyncScanAndUpdateResults(boolean quickScan) {
+        ScanScheduler.getInstance(project).schedule(this, quickScan);
+    }
+
     /**
      * Returns all project modules locations as Paths.
      * Other scanners such as npm will use this paths in order to find modules.
@@ -171,33 +329,28 @@ public abstract class ScanManager extends ScanManagerBase {
     }
 
     /**
-     * Launch async dependency scan.
+     * Launch async dependency scan after a quiet period with no other scan triggers.
+     * A burst of triggers, such as a Maven re-import of many modules, results in a single scan, which starts after
+     * the last trigger.
      */
     void asyncScanAndUpdateResults() {
-        asyncScanAndUpdateResults(true);
+        if (isDisposed()) {
+            // Listeners which are not bound to the scan manager, such as the Maven projects listener
+            return;
+        }
+        scanTriggerAlarm.cancelAllRequests();
+        scanTriggerAlarm.addRequest(() -> asyncScanAndUpdateResults(true), SCAN_TRIGGER_QUIET_PERIOD_MILLIS);
     }
 
+    /**
+     * Run the inspections on the project descriptors of this scan manager in the background.
+     */
     void runInspections() {
-        PsiFile[] projectDescriptors = getProjectDescriptors();
-        if (ArrayUtils.isEmpty(projectDescriptors)) {
-            return;
-        }
-        InspectionManagerEx inspectionManagerEx = (InspectionManagerEx) InspectionManager.getInstance(project);
-        GlobalInspectionContext context = inspectionManagerEx.createNewGlobalContext(false);
-        LocalInspectionTool localInspectionTool = getInspectionTool();
-        for (PsiFile descriptor : projectDescriptors) {
-            // Run inspection on descriptor.
-            InspectionEngine.runInspectionOnFile(descriptor, new LocalInspectionToolWrapper(localInspectionTool), context);
-            FileEditor[] editors = FileEditorManager.getInstance(project).getAllEditors(descriptor.getVirtualFile());
-            if (!ArrayUtils.isEmpty(editors)) {
-                // Refresh descriptor highlighting only if it is already opened.
-                DaemonCodeAnalyzer.getInstance(project).restart(descriptor);
-            }
-        }
+        ScanManagersFactory.getInstance(project).runInspections(Collections.singleton(this));
     }
 
     private void registerOnChangeHandlers() {
-        MessageBusConnection busConnection = ApplicationManager.getApplication().getMessageBus().connect();
+        MessageBusConnection busConnection = ApplicationManager.getApplication().getMessageBus().connect(disposable);
         busConnection.subscribe(ApplicationEvents.ON_CONFIGURATION_DETAILS_CHANGE, this::asyncScanAndUpdateResults);
     }
 
@@ -250,10 +403,6 @@ public abstract class ScanManager extends ScanManagerBase {
         }
     }
 
-    boolean isScanInProgress() {
-        return this.scanInProgress.get();
-    }
-
     public String getProjectPath() {
         return this.basePath;
     }
@@ -266,16 +415,41 @@ public abstract class ScanManager extends ScanManagerBase {
      */
     protected void subscribeLaunchDependencyScanOnFileChangedEvents(String fileName) {
         String fileToSubscribe = Paths.get(basePath, fileName).toString();
-        project.getMessageBus().connect().subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+        project.getMessageBus().connect(disposable).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
             @Override
             public void after(@NotNull List<? extends VFileEvent> events) {
                 for (VFileEvent event : events) {
                     String filePath = event.getPath();
                     if (StringUtils.equals(filePath, fileToSubscribe)) {
                         asyncScanAndUpdateResults();
+                        return;
                     }
                 }
             }
         });
     }
+
+    /**
+     * Scan the changed subtrees of an incremental scan, with its own scan results.
+     */
+    private class ChangedSubtreesScanner extends ScanManagerBase {
+
+        private final DependencyTree changedRoot;
+
+        private ChangedSubtreesScanner(DependencyTree changedRoot) throws IOException {
+            super(HOME_PATH.resolve("cache"), basePath, Logger.getInstance(), GlobalSettings.getInstance().getServerConfig(), prefix);
+            this.changedRoot = changedRoot;
+            setScanResults(changedRoot);
+        }
+
+        private void scan(ProgressIndicator indicator) throws IOException, InterruptedException {
+            scanAndCacheArtifacts(indicator, true);
+            addXrayInfoToTree(changedRoot);
+        }
+
+        @Override
+        protected void checkCanceled() {
+            ScanManager.this.checkCanceled();
+        }
+    }
 }
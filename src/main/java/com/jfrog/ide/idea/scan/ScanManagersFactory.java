@@ -2,24 +2,61 @@ package com.jfrog.ide.idea.scan;
 
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.codeInspection.GlobalInspectionContext;
+import com.intellij.codeInspection.InspectionEngine;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.ex.InspectionManagerEx;
+import com.intellij.codeInspection.ex.LocalInspectionToolWrapper;
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.FileEditorManagerListener;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.projectRoots.Sdk;
-import com.jfrog.ide.common.utils.PackageFileFinder;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.messages.MessageBusConnection;
 import com.jfrog.ide.idea.configuration.GlobalSettings;
 import com.jfrog.ide.idea.log.Logger;
 import com.jfrog.ide.idea.navigation.NavigationService;
+import com.jfrog.ide.idea.scan.DescriptorIndex.DescriptorType;
 import com.jfrog.ide.idea.ui.ComponentsTree;
+import com.jfrog.ide.idea.ui.JFrogToolWindow;
 import com.jfrog.ide.idea.ui.LocalComponentsTree;
 import com.jfrog.ide.idea.utils.Utils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jfrog.build.extractor.scan.DependencyTree;
 
+import javax.swing.tree.TreeModel;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 
 import static com.jfrog.ide.common.log.Utils.logError;
 
@@ -28,7 +65,23 @@ import static com.jfrog.ide.common.log.Utils.logError;
  */
 public class ScanManagersFactory {
 
-    private Map<Integer, ScanManager> scanManagers = Maps.newHashMap();
+    private volatile Map<Integer, ScanManager> scanManagers = Maps.newHashMap();
+    // Immutable snapshot of the scan managers, queried by the inspections for every visited dependency
+    private volatile Set<ScanManager> scanManagersSnapshot = Collections.emptySet();
+    private final DescriptorIndex descriptorIndex = new DescriptorIndex();
+    // Gradle root project directory to its build, shared by the Gradle scan managers of the build
+    private final Map<Path, GradleBuild> gradleBuilds = Maps.newConcurrentMap();
+    // Project descriptor path to the fingerprint of its subtree when it was last inspected
+    private final Map<String, Long> inspectedFingerprints = Maps.newConcurrentMap();
+    // Project descriptor path to its subtree and the excluded subtrees when it was last inspected or skipped.
+    // The navigation of a skipped descriptor is moved from these nodes to the nodes of the new subtree.
+    private final Map<String, Pair<DependencyTree, Set<DependencyTree>>> inspectedTrees = Maps.newConcurrentMap();
+    // Project descriptors skipped by the last inspections run, to inspect when opened
+    private final Set<String> staleDescriptors = Sets.newConcurrentHashSet();
+    // Runs the inspections of the scan managers one run at a time. Each run inspects its descriptors in parallel.
+    private final ExecutorService inspectionsExecutor = AppExecutorUtil.createBoundedApplicationPoolExecutor("JFrog Inspections", 1);
+    // npm project directory to the directories of its workspaces
+    private Map<String, List<Path>> npmWorkspaces = Maps.newHashMap();
     private final Project project;
 
     public static ScanManagersFactory getInstance(@NotNull Project project) {
@@ -37,15 +90,36 @@ public class ScanManagersFactory {
 
     private ScanManagersFactory(@NotNull Project project) {
         this.project = project;
+        MessageBusConnection busConnection = project.getMessageBus().connect();
+        busConnection.subscribe(VirtualFileManager.VFS_CHANGES, descriptorIndex);
+        busConnection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                gradleBuilds.values().forEach(gradleBuild -> gradleBuild.filesChanged(events));
+            }
+        });
+        busConnection.subscribe(FileEditorManagerListener.FILE_EDITOR_MANAGER, new FileEditorManagerListener() {
+            @Override
+            public void fileOpened(@NotNull FileEditorManager source, @NotNull VirtualFile file) {
+                inspectOnOpen(file);
+            }
+        });
     }
 
+    /**
+     * @param project - The project
+     * @return an immutable snapshot of the scan managers of the project.
+     */
     public static Set<ScanManager> getScanManagers(@NotNull Project project) {
         ScanManagersFactory scanManagersFactory = getInstance(project);
-        return Sets.newHashSet(scanManagersFactory.scanManagers.values());
+        return scanManagersFactory.scanManagersSnapshot;
     }
 
     /**
      * Start an Xray scan for all projects.
+     * The scan managers are refreshed on a background thread, to avoid freezing the UI while searching the project
+     * descriptors. Running scans are canceled and their results are dropped.
+     * On quick scans, the results of the previous scans are displayed until the new results are ready.
      *
      * @param quickScan - True to allow usage of the scan cache.
      */
@@ -53,44 +127,251 @@ public class ScanManagersFactory {
         if (DumbService.isDumb(project)) { // If intellij is still indexing the project
             return;
         }
-        if (isScanInProgress()) {
-            Logger.getInstance().info("Previous scan still running...");
-            return;
-        }
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            boolean refreshed = false;
+            try {
+                if (!quickScan) {
+                    // Find descriptors missed by the VFS events on a manual refresh
+                    descriptorIndex.invalidate();
+                }
+                refreshScanManagers();
+                refreshed = true;
+            } catch (IOException | RuntimeException e) {
+                logError(Logger.getInstance(), "", e, !quickScan);
+            }
+            boolean startScan = refreshed;
+            ApplicationManager.getApplication().invokeLater(() -> {
+                JFrogToolWindow.getInstance(project).setLocalProjectSupported(!scanManagers.isEmpty());
+                if (startScan) {
+                    scanRefreshedScanManagers(quickScan);
+                }
+            }, project.getDisposed());
+        });
+    }
+
+    private void scanRefreshedScanManagers(boolean quickScan) {
         if (!GlobalSettings.getInstance().areXrayCredentialsSet()) {
             Logger.getInstance().warn("Xray server is not configured.");
             return;
         }
-        try {
-            ComponentsTree componentsTree = LocalComponentsTree.getInstance(project);
-            if (componentsTree == null) {
-                return;
-            }
-            refreshScanManagers();
-            componentsTree.reset();
-            NavigationService.clearNavigationMap(project);
-            for (ScanManager scanManager : scanManagers.values()) {
-                scanManager.asyncScanAndUpdateResults(quickScan);
-            }
-        } catch (IOException | RuntimeException e) {
-            logError(Logger.getInstance(), "", e, !quickScan);
+        ComponentsTree componentsTree = LocalComponentsTree.getInstance(project);
+        if (componentsTree == null) {
+            return;
+        }
+        ScanScheduler scanScheduler = ScanScheduler.getInstance(project);
+        // Make sure outdated scans won't publish results after the components tree is reset
+        scanScheduler.cancelAll();
+        componentsTree.reset();
+        NavigationService.clearNavigationMap(project);
+        inspectedFingerprints.clear();
+        inspectedTrees.clear();
+        staleDescriptors.clear();
+        Collection<ScanManager> scanManagers = this.scanManagers.values();
+        if (!quickScan) {
+            // Resolve the Gradle dependencies again, even if the build files didn't change
+            scanManagers.stream()
+                    .filter(GradleScanManager.class::isInstance)
+                    .map(GradleScanManager.class::cast)
+                    .forEach(GradleScanManager::invalidateGradleBuild);
+            // Read the installed Python packages again, even if the site-packages directories didn't change
+            scanManagers.stream()
+                    .filter(PypiScanManager.class::isInstance)
+                    .map(PypiScanManager.class::cast)
+                    .forEach(PypiScanManager::invalidatePackages);
+            scanScheduler.schedule(scanManagers, false);
+            return;
         }
+        // Display the results of the previous scans while scanning
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            try {
+                ScanSnapshot.deleteExpired(ScanManager.SNAPSHOTS_PATH);
+            } catch (IOException e) {
+                Logger.getInstance().debug("Couldn't delete the expired scan results snapshots: " + e.getMessage());
+            }
+            scanManagers.forEach(ScanManager::restoreSnapshot);
+            scanScheduler.schedule(scanManagers, true);
+        });
     }
 
     /**
      * Run inspections for all scan managers.
      */
     public void runInspectionsForAllScanManagers() {
-        NavigationService.clearNavigationMap(project);
-        for (ScanManager scanManager : scanManagers.values()) {
-            scanManager.runInspections();
+        runInspections(scanManagersSnapshot);
+    }
+
+    /**
+     * Run the inspections of the scan managers on their project descriptors, in a non-blocking read action on a
+     * background thread. The run starts after the pending updates of the components tree, so that it sees the
+     * latest dependency tree. Only the descriptors open in an editor, and the descriptors whose subtree changed since
+     * they were last inspected, are inspected. The other descriptors are inspected when they are opened.
+     * The navigation of a skipped descriptor is moved to the nodes of its new subtree, so that it remains navigable
+     * from the components tree.
+     * The descriptors are inspected in parallel, and the highlighting of the descriptors open in an editor is
+     * restarted once, after all descriptors were inspected.
+     * A run is restarted if a write action interrupts it, and is canceled if the same inspections are requested again.
+     *
+     * @param scanManagers - The scan managers
+     */
+    void runInspections(Set<ScanManager> scanManagers) {
+        if (scanManagers.isEmpty()) {
+            return;
         }
+        ApplicationManager.getApplication().invokeLater(() -> {
+            ReadAction.nonBlocking(() -> inspectDescriptors(scanManagers))
+                    .inSmartMode(project)
+                    .expireWith(project)
+                    .coalesceBy(this, scanManagers)
+                    .finishOnUiThread(ModalityState.NON_MODAL, this::restartHighlighting)
+                    .submit(inspectionsExecutor);
+        }, project.getDisposed());
+    }
+
+    /**
+     * Run the inspections on the changed and the open project descriptors of the scan managers.
+     * Called in a read action.
+     *
+     * @param scanManagers - The scan managers
+     * @return the inspected descriptors which are open in an editor.
+     */
+    private List<PsiFile> inspectDescriptors(Set<ScanManager> scanManagers) {
+        DependencyTree root = getComponentsTreeRoot();
+        FileEditorManager fileEditorManager = FileEditorManager.getInstance(project);
+        NavigationService navigationService = NavigationService.getInstance(project);
+        List<Pair<PsiFile, LocalInspectionToolWrapper>> descriptors = new ArrayList<>();
+        Map<String, Long> fingerprints = new HashMap<>();
+        Map<String, Pair<DependencyTree, Set<DependencyTree>>> trees = new HashMap<>();
+        Set<String> skippedDescriptors = new HashSet<>();
+        for (ScanManager scanManager : scanManagers) {
+            PsiFile[] projectDescriptors = scanManager.getProjectDescriptors();
+            if (ArrayUtils.isEmpty(projectDescriptors)) {
+                continue;
+            }
+            // The inspection tool may depend on the project descriptors, as in Gradle Kotlin DSL
+            LocalInspectionToolWrapper toolWrapper = new LocalInspectionToolWrapper(scanManager.getInspectionTool());
+            DependencyTree projectTree = getProjectTree(root, scanManager.getScanResults());
+            Map<PsiFile, DependencyTree> descriptorTrees = new HashMap<>();
+            Set<DependencyTree> subtrees = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (PsiFile descriptor : projectDescriptors) {
+                if (descriptor == null || !descriptor.isValid()) {
+                    continue;
+                }
+                DependencyTree descriptorTree = projectTree != null ? scanManager.getDescriptorTree(descriptor, projectTree) : null;
+                descriptorTrees.put(descriptor, descriptorTree);
+                if (descriptorTree != null) {
+                    subtrees.add(descriptorTree);
+                }
+            }
+            for (Map.Entry<PsiFile, DependencyTree> entry : descriptorTrees.entrySet()) {
+                PsiFile descriptor = entry.getKey();
+                DependencyTree descriptorTree = entry.getValue();
+                String path = descriptor.getVirtualFile().getPath();
+                // The subtrees of the other descriptors, such as the submodules of a Maven module, are excluded
+                long fingerprint = descriptorTree != null ? DependencyTreeDiff.fingerprint(descriptorTree, subtrees) : 0;
+                Pair<DependencyTree, Set<DependencyTree>> inspectedTree = inspectedTrees.get(path);
+                boolean republished = inspectedTree != null && inspectedTree.first != descriptorTree;
+                if (fileEditorManager.isFileOpen(descriptor.getVirtualFile()) || !Objects.equals(inspectedFingerprints.get(path), fingerprint)) {
+                    descriptors.add(Pair.create(descriptor, toolWrapper));
+                    fingerprints.put(path, fingerprint);
+                    if (republished) {
+                        // The inspection registers the navigation of the new subtree
+                        DependencyTreeDiff.forEachNode(inspectedTree.first, inspectedTree.second, navigationService::removeNavigation);
+                    }
+                } else {
+                    skippedDescriptors.add(path);
+                    if (republished && descriptorTree != null) {
+                        DependencyTreeDiff.matchNodes(inspectedTree.first, inspectedTree.second, descriptorTree, subtrees,
+                                navigationService::moveNavigation);
+                    }
+                }
+                trees.put(path, Pair.create(descriptorTree, subtrees));
+            }
+        }
+        if (!descriptors.isEmpty()) {
+            InspectionManagerEx inspectionManagerEx = (InspectionManagerEx) InspectionManager.getInstance(project);
+            GlobalInspectionContext context = inspectionManagerEx.createNewGlobalContext(false);
+            ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+            JobLauncher.getInstance().invokeConcurrentlyUnderProgress(descriptors, indicator, descriptor -> {
+                InspectionEngine.runInspectionOnFile(descriptor.first, descriptor.second, context);
+                return true;
+            });
+        }
+        // Update the state only after the run completed. An interrupted run is restarted from scratch, and moves or
+        // removes the navigation of the already handled descriptors again, which does nothing.
+        inspectedFingerprints.putAll(fingerprints);
+        trees.forEach((path, tree) -> {
+            if (tree.first != null) {
+                inspectedTrees.put(path, tree);
+            } else {
+                inspectedTrees.remove(path);
+            }
+        });
+        staleDescriptors.removeAll(fingerprints.keySet());
+        staleDescriptors.addAll(skippedDescriptors);
+        return descriptors.stream()
+                .map(descriptor -> descriptor.first)
+                .filter(descriptor -> fileEditorManager.isFileOpen(descriptor.getVirtualFile()))
+                .collect(Collectors.toList());
+    }
+
+    private DependencyTree getComponentsTreeRoot() {
+        ComponentsTree componentsTree = LocalComponentsTree.getInstance(project);
+        TreeModel model = componentsTree != null ? componentsTree.getModel() : null;
+        return model != null ? (DependencyTree) model.getRoot() : null;
+    }
+
+    /**
+     * Get the dependency tree of the scan manager, as displayed in the components tree.
+     *
+     * @param root        - The root of the components tree
+     * @param scanResults - The scan results of the scan manager
+     * @return the dependency tree of the scan manager, or null if it is not displayed.
+     */
+    private static DependencyTree getProjectTree(DependencyTree root, DependencyTree scanResults) {
+        if (root == null || scanResults == null) {
+            return null;
+        }
+        if (root.getUserObject() != null) {
+            // Single project
+            return Utils.areRootNodesEqual(root, scanResults) ? root : null;
+        }
+        return root.getChildren().stream()
+                .filter(projectNode -> Utils.areRootNodesEqual(projectNode, scanResults))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Restart the highlighting of a project descriptor which was skipped by the last inspections run, when it is
+     * opened. The highlighting registers the navigation from the components tree to the descriptor.
+     *
+     * @param file - The opened file
+     */
+    private void inspectOnOpen(VirtualFile file) {
+        if (!staleDescriptors.remove(file.getPath())) {
+            return;
+        }
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        if (psiFile != null) {
+            DaemonCodeAnalyzer.getInstance(project).restart(psiFile);
+        }
+    }
+
+    /**
+     * Refresh the highlighting of the inspected descriptors which are open in an editor.
+     *
+     * @param openDescriptors - The inspected descriptors which are open in an editor
+     */
+    private void restartHighlighting(List<PsiFile> openDescriptors) {
+        DaemonCodeAnalyzer daemonCodeAnalyzer = DaemonCodeAnalyzer.getInstance(project);
+        openDescriptors.stream().filter(PsiFile::isValid).forEach(daemonCodeAnalyzer::restart);
     }
 
     /**
      * Scan projects, create new ScanManagers and delete unnecessary ones.
+     * Should be called on a background thread.
      */
-    public void refreshScanManagers() throws IOException {
+    public synchronized void refreshScanManagers() throws IOException {
         Map<Integer, ScanManager> scanManagers = Maps.newHashMap();
         final Set<Path> paths = Sets.newHashSet();
         int projectHash = Utils.getProjectIdentifier(project);
@@ -105,34 +386,52 @@ public class ScanManagersFactory {
         paths.add(Utils.getProjectBasePath(project));
         createScanManagers(scanManagers, paths);
         createPypiScanManagerIfApplicable(scanManagers);
+        Collection<ScanManager> droppedScanManagers = this.scanManagers.values();
         this.scanManagers = scanManagers;
+        this.scanManagersSnapshot = Collections.unmodifiableSet(Sets.newHashSet(scanManagers.values()));
+
+        // Stop the scan triggers of the dropped scan managers
+        droppedScanManagers.stream()
+                .filter(droppedScanManager -> !scanManagersSnapshot.contains(droppedScanManager))
+                .forEach(ScanManager::dispose);
+
+        // Drop the builds of removed Gradle projects
+        Set<GradleBuild> usedGradleBuilds = scanManagers.values().stream()
+                .filter(GradleScanManager.class::isInstance)
+                .map(GradleScanManager.class::cast)
+                .map(GradleScanManager::getGradleBuild)
+                .collect(Collectors.toSet());
+        gradleBuilds.values().retainAll(usedGradleBuilds);
     }
 
     private void createScanManagers(Map<Integer, ScanManager> scanManagers, Set<Path> paths) throws IOException {
-        scanManagers.values().stream().map(ScanManager::getProjectPaths).flatMap(Collection::stream).forEach(paths::add);
-        PackageFileFinder packageFileFinder = new PackageFileFinder(paths, GlobalSettings.getInstance().getServerConfig().getExcludedPaths(), Logger.getInstance());
+        ReadAction.run(() -> scanManagers.values().stream().map(ScanManager::getProjectPaths).flatMap(Collection::stream).forEach(paths::add));
+        String excludedPaths = GlobalSettings.getInstance().getServerConfig().getExcludedPaths();
 
-        // Create npm scan-managers.
-        Set<String> packageJsonDirs = packageFileFinder.getNpmPackagesFilePairs();
-        createScanManagersForPackageDirs(packageJsonDirs, scanManagers, ScanManagerTypes.NPM);
+        // Create npm scan-managers. The workspaces are scanned by the scan-manager of their workspaces root.
+        Set<String> packageJsonDirs = descriptorIndex.getDescriptorDirs(paths, excludedPaths, DescriptorType.NPM);
+        npmWorkspaces = NpmWorkspaces.groupWorkspaces(packageJsonDirs);
+        createScanManagersForPackageDirs(npmWorkspaces.keySet(), scanManagers, ScanManagerTypes.NPM);
 
         // Create Gradle scan-managers.
-        Set<String> buildGradleDirs = packageFileFinder.getBuildGradlePackagesFilePairs();
+        Set<String> buildGradleDirs = descriptorIndex.getDescriptorDirs(paths, excludedPaths, DescriptorType.GRADLE);
         createScanManagersForPackageDirs(buildGradleDirs, scanManagers, ScanManagerTypes.GRADLE);
 
         // Create Go scan-managers.
-        Set<String> goModDirs = packageFileFinder.getGoPackagesFilePairs();
+        Set<String> goModDirs = descriptorIndex.getDescriptorDirs(paths, excludedPaths, DescriptorType.GO);
         createScanManagersForPackageDirs(goModDirs, scanManagers, ScanManagerTypes.GO);
     }
 
     /**
-     * Create PypiScanManager for each Python SDK configured.
+     * Create PypiScanManager for each Python SDK of the project modules.
+     * If 'Scan all Python interpreters' is checked, create PypiScanManager for each Python SDK configured in the IDE.
      *
      * @param scanManagers - The scan managers list
      */
     private void createPypiScanManagerIfApplicable(Map<Integer, ScanManager> scanManagers) throws IOException {
+        boolean allSdks = GlobalSettings.getInstance().getServerConfig().isScanAllPythonSdks();
         try {
-            for (Sdk pythonSdk : PypiScanManager.getAllPythonSdks()) {
+            for (Sdk pythonSdk : ReadAction.compute(() -> PypiScanManager.getPythonSdks(project, allSdks))) {
                 int projectHash = Utils.getProjectIdentifier(pythonSdk.getName(), pythonSdk.getHomePath());
                 ScanManager scanManager = this.scanManagers.get(projectHash);
                 if (scanManager == null) {
@@ -180,15 +479,17 @@ public class ScanManagersFactory {
         try {
             switch (type) {
                 case MAVEN:
-                    if (MavenScanManager.isApplicable(project)) {
+                    if (ReadAction.compute(() -> MavenScanManager.isApplicable(project))) {
                         scanManagers.put(projectHash, new MavenScanManager(project));
                     }
                     return;
                 case GRADLE:
-                    scanManagers.put(projectHash, new GradleScanManager(project, dir));
+                    GradleBuild gradleBuild = gradleBuilds.computeIfAbsent(GradleBuild.findRootDir(Paths.get(dir)), GradleBuild::new);
+                    scanManagers.put(projectHash, new GradleScanManager(project, dir, gradleBuild));
                     return;
                 case NPM:
-                    scanManagers.put(projectHash, new NpmScanManager(project, dir));
+                    List<Path> workspaceDirs = npmWorkspaces.getOrDefault(dir, Collections.emptyList());
+                    scanManagers.put(projectHash, new NpmScanManager(project, dir, workspaceDirs));
                     return;
                 case GO:
                     scanManagers.put(projectHash, new GoScanManager(project, dir));
@@ -197,8 +498,4 @@ public class ScanManagersFactory {
             // The 'maven' or 'python' plugins are not installed.
         }
     }
-
-    private boolean isScanInProgress() {
-        return scanManagers.values().stream().anyMatch(ScanManager::isScanInProgress);
-    }
 }
@@ -0,0 +1,73 @@
+package com.jfrog.ide.idea.scan;
+
+import com.intellij.openapi.util.Pair;
+
+import java.util.*;
+
+/**
+ * Queue of scan managers waiting to be scanned.
+ * Scan managers are polled in a round-robin order between the package manager types and in a FIFO order within
+ * each type. This way a project with dozens of npm packages doesn't delay the scan of its Maven or Go projects.
+ * Offering a scan manager which is already queued keeps its position in the queue.
+ */
+class ScanQueue {
+
+    // Package manager type to its pending scan managers. The first type is the next to be polled.
+    private final LinkedHashMap<Class<?>, Deque<ScanManager>> queues = new LinkedHashMap<>();
+    // Pending scan manager to its quick scan flag
+    private final Map<ScanManager, Boolean> pending = new HashMap<>();
+
+    /**
+     * Add the scan manager to the queue. If the scan manager is already queued, a full scan request wins over a quick
+     * scan request.
+     *
+     * @param scanManager - The scan manager to queue
+     * @param quickScan   - True to allow usage of the scan cache
+     */
+    void offer(ScanManager scanManager, boolean quickScan) {
+        if (pending.containsKey(scanManager)) {
+            pending.merge(scanManager, quickScan, Boolean::logicalAnd);
+            return;
+        }
+        pending.put(scanManager, quickScan);
+        queues.computeIfAbsent(scanManager.getClass(), type -> new ArrayDeque<>()).addLast(scanManager);
+    }
+
+    /**
+     * Poll the next scan manager to scan.
+     *
+     * @return the next scan manager and its quick scan flag or null if the queue is empty.
+     */
+    Pair<ScanManager, Boolean> poll() {
+        Iterator<Map.Entry<Class<?>, Deque<ScanManager>>> iterator = queues.entrySet().iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        Map.Entry<Class<?>, Deque<ScanManager>> next = iterator.next();
+        iterator.remove();
+        Deque<ScanManager> typeQueue = next.getValue();
+        ScanManager scanManager = typeQueue.pollFirst();
+        if (!typeQueue.isEmpty()) {
+            // Move the package manager type to the end of the queue
+            queues.put(next.getKey(), typeQueue);
+        }
+        return Pair.create(scanManager, pending.remove(scanManager));
+    }
+
+    boolean contains(ScanManager scanManager) {
+        return pending.containsKey(scanManager);
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    void clear() {
+        queues.clear();
+        pending.clear();
+    }
+}
@@ -0,0 +1,281 @@
+package com.jfrog.ide.idea.scan;
+
+import com.intellij.concurrency.SensitiveProgressWrapper;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.jfrog.ide.idea.configuration.GlobalSettings;
+import com.jfrog.ide.idea.log.Logger;
+import com.jfrog.ide.idea.ui.configuration.ScanConcurrencySpinner;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Run the Xray scans of all scan managers in the project under a single background task.
+ * At most {@link com.jfrog.ide.idea.configuration.ServerConfigImpl#getScanConcurrency()} scan managers are scanned
+ * simultaneously, so that a large monorepo doesn't spawn dozens of npm, Go and Gradle processes at once.
+ * The pending scan managers are ordered by the {@link ScanQueue}.
+ * Disposed with the project - The running scans are canceled, the pending scans are dropped and the executor is shut
+ * down.
+ */
+public class ScanScheduler implements Disposable {
+    private static final String SCAN_TASK_TITLE = "Xray: Scanning for vulnerabilities...";
+    // Time to wait for a running scan to finish before checking for cancellation
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("JFrog Xray Scan", ScanConcurrencySpinner.RANGE.max);
+    // Running scan manager to the progress indicator of its scan
+    private final Map<ScanManager, ProgressIndicator> running = new ConcurrentHashMap<>();
+    // Scan manager to rescan after its running scan is done, mapped to its quick scan flag. Guarded by 'this'.
+    private final Map<ScanManager, Boolean> rescans = new HashMap<>();
+    private final ScanQueue queue = new ScanQueue();
+    private final Project project;
+    // True if the scan task is queued or running. Guarded by 'this'.
+    private boolean taskActive;
+    // True after the project is closed. Guarded by 'this'.
+    private boolean disposed;
+
+    public static ScanScheduler getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, ScanScheduler.class);
+    }
+
+    private ScanScheduler(@NotNull Project project) {
+        this.project = project;
+    }
+
+    /**
+     * Queue a scan of the input scan manager.
+     *
+     * @param scanManager - The scan manager to scan
+     * @param quickScan   - True to allow usage of the scan cache
+     */
+    void schedule(ScanManager scanManager, boolean quickScan) {
+        schedule(Collections.singleton(scanManager), quickScan);
+    }
+
+    /**
+     * Queue a scan of the input scan managers and start the scan task if it is not already running.
+     * A running scan of any of the scan managers is outdated by the new request, so it is canceled and its results
+     * are never published. The scan manager is scanned again right after the canceled scan is stopped.
+     *
+     * @param scanManagers - The scan managers to scan
+     * @param quickScan    - True to allow usage of the scan cache
+     */
+    void schedule(Collection<ScanManager> scanManagers, boolean quickScan) {
+        if (DumbService.isDumb(project)) { // If intellij is still indexing the project
+            return;
+        }
+        synchronized (this) {
+            if (disposed) {
+                return;
+            }
+            for (ScanManager scanManager : scanManagers) {
+                scanManager.supersedeScan();
+                ProgressIndicator runningIndicator = running.get(scanManager);
+                if (runningIndicator != null) {
+                    // The running scan may miss the latest changes - Cancel it and scan again after it is stopped
+                    runningIndicator.cancel();
+                    rescans.merge(scanManager, quickScan, Boolean::logicalAnd);
+                    continue;
+                }
+                queue.offer(scanManager, quickScan);
+            }
+            if (taskActive || queue.isEmpty()) {
+                return;
+            }
+            taskActive = true;
+        }
+        runScanTask();
+    }
+
+    /**
+     * Cancel all running and queued scans. The canceled scans never publish their results.
+     * The scan task, if running, continues to serve scans scheduled after this call.
+     */
+    synchronized void cancelAll() {
+        running.forEach((scanManager, indicator) -> {
+            scanManager.supersedeScan();
+            indicator.cancel();
+        });
+        rescans.clear();
+        queue.clear();
+    }
+
+    private void runScanTask() {
+        Task.Backgroundable scanTask = new Task.Backgroundable(null, SCAN_TASK_TITLE) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                boolean completed = false;
+                try {
+                    if (project.isDisposed()) {
+                        return;
+                    }
+                    if (!GlobalSettings.getInstance().areXrayCredentialsSet()) {
+                        Logger.getInstance().warn("Xray server is not configured.");
+                        return;
+                    }
+                    scanQueuedManagers(indicator);
+                    completed = true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    if (!completed) {
+                        stopScanTask();
+                    }
+                }
+            }
+        };
+        // The progress manager is only good for foreground threads.
+        if (SwingUtilities.isEventDispatchThread()) {
+            ProgressManager.getInstance().run(scanTask);
+        } else {
+            // Run the scan task when the thread is in the foreground.
+            ApplicationManager.getApplication().invokeLater(() -> ProgressManager.getInstance().run(scanTask));
+        }
+    }
+
+    /**
+     * Scan the queued scan managers until the queue is empty.
+     * Scan managers queued while the task is running are picked up by the same task.
+     *
+     * @param indicator - The progress indicator of the scan task
+     */
+    private void scanQueuedManagers(ProgressIndicator indicator) throws InterruptedException {
+        int concurrency = GlobalSettings.getInstance().getServerConfig().getScanConcurrency();
+        AggregatedProgress progress = new AggregatedProgress(indicator);
+        while (true) {
+            synchronized (this) {
+                if (disposed) {
+                    taskActive = false;
+                    return;
+                }
+                while (running.size() < concurrency && !queue.isEmpty()) {
+                    Pair<ScanManager, Boolean> next = queue.poll();
+                    startScan(next.first, next.second, indicator, progress);
+                }
+                if (running.isEmpty()) {
+                    taskActive = false;
+                    return;
+                }
+                wait(POLL_INTERVAL_MILLIS);
+            }
+            indicator.checkCanceled();
+        }
+    }
+
+    /**
+     * Scan the scan manager on the scan executor.
+     * The scan runs under a progress indicator which is canceled together with the scan task indicator.
+     */
+    private void startScan(ScanManager scanManager, boolean quickScan, ProgressIndicator indicator, AggregatedProgress progress) {
+        ProgressIndicator scanIndicator = new SensitiveProgressWrapper(indicator);
+        running.put(scanManager, scanIndicator);
+        progress.started(scanManager);
+        executor.execute(() -> {
+            try {
+                ProgressManager.getInstance().executeProcessUnderProgress(() ->
+                        scanManager.scanAndUpdate(quickScan, progress.createIndicator(scanManager)), scanIndicator);
+            } catch (ProcessCanceledException e) {
+                // Canceled before the scan started
+            } finally {
+                onScanFinished(scanManager, progress);
+            }
+        });
+    }
+
+    /**
+     * Called when a scan is done. Queue the scan manager again if it was triggered while scanning.
+     */
+    private void onScanFinished(ScanManager scanManager, AggregatedProgress progress) {
+        boolean startTask = false;
+        synchronized (this) {
+            running.remove(scanManager);
+            progress.finished(scanManager);
+            Boolean rescanQuickScan = rescans.remove(scanManager);
+            if (rescanQuickScan != null && !disposed) {
+                queue.offer(scanManager, rescanQuickScan);
+                // The scan task may have been canceled while this scan was running
+                startTask = !taskActive;
+                taskActive = true;
+            }
+            notifyAll();
+        }
+        if (startTask) {
+            runScanTask();
+        }
+    }
+
+    /**
+     * Called when the scan task is aborted or canceled. Cancel the running scans and drop the pending ones.
+     */
+    private synchronized void stopScanTask() {
+        running.values().forEach(ProgressIndicator::cancel);
+        rescans.clear();
+        queue.clear();
+        taskActive = false;
+    }
+
+    @Override
+    public synchronized void dispose() {
+        disposed = true;
+        stopScanTask();
+        notifyAll();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Aggregate the progress of all scan managers scanned by the scan task into its single progress indicator.
+     */
+    private static class AggregatedProgress {
+        // Running scan manager to its scan progress fraction
+        private final Map<ScanManager, Double> fractions = new ConcurrentHashMap<>();
+        private final ProgressIndicator indicator;
+        private volatile int total;
+        private volatile int completed;
+
+        private AggregatedProgress(ProgressIndicator indicator) {
+            this.indicator = indicator;
+        }
+
+        private synchronized void started(ScanManager scanManager) {
+            fractions.put(scanManager, 0.0);
+            total++;
+            update();
+        }
+
+        private synchronized void finished(ScanManager scanManager) {
+            fractions.remove(scanManager);
+            completed++;
+            update();
+        }
+
+        private com.jfrog.ide.common.log.ProgressIndicator createIndicator(ScanManager scanManager) {
+            return fraction -> {
+                fractions.replace(scanManager, fraction);
+                update();
+            };
+        }
+
+        private void update() {
+            double running = fractions.values().stream().mapToDouble(Double::doubleValue).sum();
+            indicator.setIndeterminate(false);
+            indicator.setFraction((completed + running) / Math.max(total, 1));
+            indicator.setText2(completed + "/" + total + " projects scanned");
+        }
+    }
+}
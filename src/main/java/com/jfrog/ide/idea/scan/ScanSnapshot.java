@@ -0,0 +1,140 @@
+package com.jfrog.ide.idea.scan;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Sets;
+import org.jfrog.build.extractor.scan.DependencyTree;
+import org.jfrog.build.extractor.scan.GeneralInfo;
+import org.jfrog.build.extractor.scan.Issue;
+import org.jfrog.build.extractor.scan.License;
+import org.jfrog.build.extractor.scan.Scope;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Snapshot of the last scan results of a scan manager, including the Xray info.
+ * The snapshot is loaded when the IDE starts, so that the scan results are displayed before the first scan is done.
+ * The snapshot is stored as a gzipped JSON. Snapshots older than a week are neither loaded nor kept.
+ */
+class ScanSnapshot {
+    static final long MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(7);
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .setSerializationInclusion(JsonInclude.Include.NON_EMPTY)
+            // Some of the Xray info classes have fluent setters, so serialize the fields rather than the properties
+            .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+
+    /**
+     * Write the dependency tree to the snapshot file.
+     * The snapshot is written to a temporary file first, so that a partially written snapshot is never loaded.
+     *
+     * @param path - The snapshot file
+     * @param tree - The dependency tree, including Xray info
+     * @throws IOException in case of any I/O error.
+     */
+    static void save(Path path, DependencyTree tree) throws IOException {
+        Files.createDirectories(path.getParent());
+        Path tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(tmpPath))) {
+            mapper.writeValue(outputStream, new Node(tree));
+        }
+        Files.move(tmpPath, path, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    /**
+     * Read the dependency tree from the snapshot file.
+     *
+     * @param path - The snapshot file
+     * @return the dependency tree, or null if the snapshot doesn't exist or is expired.
+     * @throws IOException in case of any I/O error or if the snapshot is corrupted.
+     */
+    static DependencyTree load(Path path) throws IOException {
+        if (!Files.isRegularFile(path) || isExpired(path)) {
+            return null;
+        }
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(path))) {
+            return mapper.readValue(inputStream, Node.class).toDependencyTree();
+        }
+    }
+
+    /**
+     * Delete the expired snapshots, including the snapshots of removed projects.
+     *
+     * @param snapshotsDir - The snapshots directory
+     * @throws IOException in case of any I/O error.
+     */
+    static void deleteExpired(Path snapshotsDir) throws IOException {
+        if (!Files.isDirectory(snapshotsDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> snapshots = Files.newDirectoryStream(snapshotsDir)) {
+            for (Path snapshot : snapshots) {
+                if (Files.isRegularFile(snapshot) && isExpired(snapshot)) {
+                    Files.deleteIfExists(snapshot);
+                }
+            }
+        }
+    }
+
+    private static boolean isExpired(Path path) throws IOException {
+        return System.currentTimeMillis() - Files.getLastModifiedTime(path).toMillis() > MAX_AGE_MILLIS;
+    }
+
+    /**
+     * Serializable form of a dependency tree node.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static class Node {
+        public String component;
+        public GeneralInfo generalInfo;
+        public Set<String> scopes;
+        public Set<Issue> issues;
+        public Set<License> licenses;
+        public List<Node> children;
+
+        @SuppressWarnings("unused")
+        public Node() {
+        }
+
+        private Node(DependencyTree node) {
+            component = String.valueOf(node.getUserObject());
+            generalInfo = node.getGeneralInfo();
+            scopes = node.getScopes().stream().map(Scope::getName).collect(Collectors.toSet());
+            issues = node.getIssues();
+            licenses = node.getLicenses();
+            children = node.getChildren().stream().map(Node::new).collect(Collectors.toList());
+        }
+
+        private DependencyTree toDependencyTree() {
+            DependencyTree node = new DependencyTree(component);
+            node.setGeneralInfo(generalInfo);
+            if (scopes != null) {
+                node.setScopes(scopes.stream().map(Scope::new).collect(Collectors.toSet()));
+            }
+            node.setIssues(issues != null ? issues : Sets.newHashSet());
+            node.setLicenses(licenses != null ? licenses : Sets.newHashSet());
+            if (children != null) {
+                children.stream().map(Node::toDependencyTree).forEach(node::add);
+            }
+            return node;
+        }
+    }
+}
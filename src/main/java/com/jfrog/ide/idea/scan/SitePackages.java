@@ -0,0 +1,91 @@
+package com.jfrog.ide.idea.scan;
+
+import com.google.common.hash.Hashing;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.projectRoots.Sdk;
+import com.intellij.openapi.roots.OrderRootType;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Utilities for the site-packages directories of a Python SDK.
+ */
+class SitePackages {
+    private static final String[] SITE_PACKAGES_DIRS = {"site-packages", "dist-packages"};
+    private static final String[] METADATA_DIRS_SUFFIXES = {".dist-info", ".egg-info"};
+
+    /**
+     * Get the site-packages directories of the Python SDK.
+     *
+     * @param pythonSdk - The Python SDK
+     * @return the site-packages directories of the SDK.
+     */
+    static List<Path> getSitePackagesDirs(Sdk pythonSdk) {
+        VirtualFile[] roots = ReadAction.compute(() -> pythonSdk.getRootProvider().getFiles(OrderRootType.CLASSES));
+        return Arrays.stream(roots)
+                .filter(root -> StringUtils.equalsAny(root.getName(), SITE_PACKAGES_DIRS))
+                .map(VirtualFile::getPath)
+                .map(Paths::get)
+                .filter(Files::isDirectory)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the package metadata directories, i.e. the '*.dist-info' and '*.egg-info' directories, in the site-packages
+     * directories.
+     *
+     * @param sitePackagesDirs - The site-packages directories
+     * @return the package metadata directories.
+     * @throws IOException in case of an error while listing a site-packages directory.
+     */
+    static List<Path> getMetadataDirs(List<Path> sitePackagesDirs) throws IOException {
+        List<Path> metadataDirs = new ArrayList<>();
+        for (Path sitePackagesDir : sitePackagesDirs) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(sitePackagesDir,
+                    path -> StringUtils.endsWithAny(path.getFileName().toString(), METADATA_DIRS_SUFFIXES))) {
+                stream.forEach(metadataDirs::add);
+            }
+        }
+        return metadataDirs;
+    }
+
+    /**
+     * Calculate a fingerprint of the installed packages. The fingerprint is composed of the names, modification times
+     * and sizes of the package metadata entries in the site-packages directories.
+     * Installing, upgrading or removing a package changes the fingerprint.
+     *
+     * @param sitePackagesDirs - The site-packages directories
+     * @return the fingerprint, or null if there are no site-packages directories.
+     * @throws IOException in case of an error while reading the site-packages directories.
+     */
+    static String getFingerprint(List<Path> sitePackagesDirs) throws IOException {
+        if (sitePackagesDirs.isEmpty()) {
+            return null;
+        }
+        List<String> entries = new ArrayList<>();
+        for (Path path : sitePackagesDirs) {
+            entries.add(describe(path));
+        }
+        for (Path path : getMetadataDirs(sitePackagesDirs)) {
+            entries.add(describe(path));
+        }
+        Collections.sort(entries);
+        return Hashing.sha256().hashString(String.join("\n", entries), StandardCharsets.UTF_8).toString();
+    }
+
+    private static String describe(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return path + "|" + attributes.lastModifiedTime().toMillis() + "|" + attributes.size();
+    }
+}
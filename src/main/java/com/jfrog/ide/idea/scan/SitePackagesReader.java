@@ -0,0 +1,161 @@
+package com.jfrog.ide.idea.scan;
+
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Read the packages installed in site-packages directories from their '*.dist-info' and '*.egg-info' metadata,
+ * without running the Python interpreter.
+ */
+class SitePackagesReader {
+    private static final ExecutorService READER_POOL = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+            "JFrog PyPI Metadata Reader", Math.max(2, Runtime.getRuntime().availableProcessors()));
+    private static final Pattern REQUIREMENT_NAME = Pattern.compile("^\\s*([A-Za-z0-9][A-Za-z0-9._-]*)");
+    private static final Pattern PYTHON_VERSION = Pattern.compile("\\d+(\\.\\d+)*");
+
+    private final Pep508Markers markers;
+
+    /**
+     * @param pythonVersionString - The version string of the Python SDK, for example "Python 3.8.5"
+     */
+    SitePackagesReader(String pythonVersionString) {
+        Map<String, String> environment = Pep508Markers.createEnvironment(extractPythonVersion(pythonVersionString));
+        this.markers = new Pep508Markers(environment);
+    }
+
+    /**
+     * Read the packages installed in the site-packages directories. The metadata directories are read in parallel.
+     * If a package is installed in more than one site-packages directory, the first one wins.
+     *
+     * @param sitePackagesDirs - The site-packages directories
+     * @return the installed packages.
+     * @throws IOException in case of an error while reading the metadata.
+     */
+    List<PythonPackage> readPackages(List<Path> sitePackagesDirs) throws IOException {
+        List<Callable<PythonPackage>> readers = SitePackages.getMetadataDirs(sitePackagesDirs).stream()
+                .map(metadataDir -> (Callable<PythonPackage>) () -> readPackage(metadataDir))
+                .collect(Collectors.toList());
+        Map<String, PythonPackage> packages = new LinkedHashMap<>();
+        try {
+            for (Future<PythonPackage> future : READER_POOL.invokeAll(readers)) {
+                PythonPackage pythonPackage = future.get();
+                if (pythonPackage != null) {
+                    packages.putIfAbsent(PythonPackage.normalizeName(pythonPackage.getName()), pythonPackage);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading the site-packages metadata", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+        return new ArrayList<>(packages.values());
+    }
+
+    /**
+     * Read a single package from its metadata directory.
+     *
+     * @param metadataDir - The '*.dist-info' or '*.egg-info' directory. Old distutils installations use an
+     *                    '*.egg-info' file instead of a directory.
+     * @return the package, or null if the metadata doesn't contain the package name.
+     * @throws IOException in case of an error while reading the metadata.
+     */
+    PythonPackage readPackage(Path metadataDir) throws IOException {
+        Path metadataFile;
+        if (!Files.isDirectory(metadataDir)) {
+            metadataFile = metadataDir;
+        } else if (metadataDir.getFileName().toString().endsWith(".dist-info")) {
+            metadataFile = metadataDir.resolve("METADATA");
+        } else {
+            metadataFile = metadataDir.resolve("PKG-INFO");
+        }
+        if (!Files.isRegularFile(metadataFile)) {
+            return null;
+        }
+
+        String name = null, version = "";
+        List<String> requirements = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(metadataFile, StandardCharsets.UTF_8)) {
+            String line;
+            // The headers end at the first empty line. The package description comes next.
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                if (line.startsWith("Name:")) {
+                    name = StringUtils.substringAfter(line, ":").trim();
+                } else if (line.startsWith("Version:")) {
+                    version = StringUtils.substringAfter(line, ":").trim();
+                } else if (line.startsWith("Requires-Dist:")) {
+                    addRequirement(StringUtils.substringAfter(line, ":"), requirements);
+                }
+            }
+        }
+        if (StringUtils.isBlank(name)) {
+            return null;
+        }
+
+        // Requirements of egg-info packages are listed in requires.txt
+        Path requiresFile = metadataDir.resolve("requires.txt");
+        if (requirements.isEmpty() && Files.isDirectory(metadataDir) && Files.isRegularFile(requiresFile)) {
+            readRequiresFile(requiresFile, requirements);
+        }
+        return new PythonPackage(name, version, true, requirements);
+    }
+
+    /**
+     * Read the requirements from an egg-info 'requires.txt' file.
+     * Requirements under an '[extra]' section are skipped and requirements under a '[:markers]' section are added
+     * only if the markers match.
+     */
+    private void readRequiresFile(Path requiresFile, List<String> requirements) throws IOException {
+        boolean inActiveSection = true;
+        for (String line : Files.readAllLines(requiresFile, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (line.startsWith("[")) {
+                String section = StringUtils.substringBetween(line, "[", "]");
+                inActiveSection = section != null && section.startsWith(":") && markers.evaluate(section.substring(1));
+                continue;
+            }
+            if (inActiveSection) {
+                addRequirement(line, requirements);
+            }
+        }
+    }
+
+    /**
+     * Add the name of the required package if its markers match the environment.
+     *
+     * @param requirement  - Requirement in the PEP 508 format, for example 'idna (<3,>=2.5) ; python_version < "3"'
+     * @param requirements - The requirement names list to add to
+     */
+    private void addRequirement(String requirement, List<String> requirements) {
+        if (!markers.evaluate(StringUtils.substringAfter(requirement, ";"))) {
+            return;
+        }
+        Matcher matcher = REQUIREMENT_NAME.matcher(requirement);
+        if (matcher.find()) {
+            requirements.add(matcher.group(1));
+        }
+    }
+
+    private static String extractPythonVersion(String pythonVersionString) {
+        Matcher matcher = PYTHON_VERSION.matcher(StringUtils.defaultString(pythonVersionString));
+        return matcher.find() ? matcher.group() : null;
+    }
+}
@@ -215,7 +215,17 @@ public abstract class AbstractJFrogToolWindow extends SimpleToolWindowPanel {
      * Called after a change in the credentials.
      */
     public void onConfigurationChange() {
-        rightHorizontalSplit.setFirstComponent(createComponentsDetailsView(true));
+        updateComponentsDetailsView(true);
+    }
+
+    /**
+     * Recreate the component details view.
+     *
+     * @param supported - True if the current opened project is supported by the plugin.
+     *                  If not, show the "Unsupported project type" message.
+     */
+    void updateComponentsDetailsView(boolean supported) {
+        rightHorizontalSplit.setFirstComponent(createComponentsDetailsView(supported));
         issuesPanel.validate();
         issuesPanel.repaint();
     }
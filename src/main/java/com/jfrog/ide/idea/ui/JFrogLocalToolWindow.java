@@ -30,13 +30,27 @@ import static com.jfrog.ide.idea.ui.JFrogToolWindow.TITLE_LABEL_SIZE;
  */
 public class JFrogLocalToolWindow extends AbstractJFrogToolWindow {
 
+    // False until the scan managers are discovered. Not initialized explicitly, since it is read by the super constructor.
+    private boolean discovered;
+
+    /**
+     * Create the local tool window in the "discovering" state, until {@link #setLocalProjectSupported(boolean)} is called.
+     *
+     * @param project - Currently opened IntelliJ project
+     */
+    public JFrogLocalToolWindow(@NotNull Project project) {
+        super(project, true, LocalComponentsTree.getInstance(project));
+    }
+
     /**
-     * @param project   - Currently opened IntelliJ project
+     * Called after the scan managers are discovered.
+     *
      * @param supported - True if the current opened project is supported by the plugin.
      *                  If not, show the "Unsupported project type" message.
      */
-    public JFrogLocalToolWindow(@NotNull Project project, boolean supported) {
-        super(project, supported, LocalComponentsTree.getInstance(project));
+    public void setLocalProjectSupported(boolean supported) {
+        discovered = true;
+        updateComponentsDetailsView(supported);
     }
 
     @Override
@@ -69,7 +83,8 @@ public class JFrogLocalToolWindow extends AbstractJFrogToolWindow {
         title.setFont(title.getFont().deriveFont(TITLE_FONT_SIZE));
 
         issuesDetailsPanel = new JBPanel<>(new BorderLayout()).withBackground(UIUtil.getTableBackground());
-        String panelText = supported ? ComponentUtils.SELECT_COMPONENT_TEXT : ComponentUtils.UNSUPPORTED_TEXT;
+        String panelText = !discovered ? ComponentUtils.DISCOVERING_TEXT :
+                supported ? ComponentUtils.SELECT_COMPONENT_TEXT : ComponentUtils.UNSUPPORTED_TEXT;
         issuesDetailsPanel.add(ComponentUtils.createDisabledTextLabel(panelText), BorderLayout.CENTER);
         issuesDetailsScroll = ScrollPaneFactory.createScrollPane(issuesDetailsPanel, ScrollPaneConstants.VERTICAL_SCROLLBAR_ALWAYS, ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
         return new TitledPane(JSplitPane.VERTICAL_SPLIT, TITLE_LABEL_SIZE, title, issuesDetailsScroll);
@@ -1,5 +1,6 @@
 package com.jfrog.ide.idea.ui;
 
+import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.ui.content.Content;
@@ -17,13 +18,30 @@ public class JFrogToolWindow {
     public static final int TITLE_LABEL_SIZE = (int) TITLE_FONT_SIZE + 10;
     public static final int SCROLL_BAR_SCROLLING_UNITS = 16;
 
-    void initToolWindow(@NotNull ToolWindow toolWindow, @NotNull Project project, boolean localProjectSupported, boolean buildsConfigured) {
+    private JFrogLocalToolWindow jfrogLocalContent;
+
+    public static JFrogToolWindow getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, JFrogToolWindow.class);
+    }
+
+    void initToolWindow(@NotNull ToolWindow toolWindow, @NotNull Project project, boolean buildsConfigured) {
         ContentManager contentManager = toolWindow.getContentManager();
-        JFrogLocalToolWindow jfrogLocalContent = new JFrogLocalToolWindow(project, localProjectSupported);
+        jfrogLocalContent = new JFrogLocalToolWindow(project);
         JFrogCiToolWindow jFrogCiContent = new JFrogCiToolWindow(project, buildsConfigured);
         addContent(contentManager, jfrogLocalContent, jFrogCiContent);
     }
 
+    /**
+     * Update the local tool window after the scan managers are discovered. Must be called on the EDT.
+     *
+     * @param localProjectSupported - True if there is at least one scan manager
+     */
+    public void setLocalProjectSupported(boolean localProjectSupported) {
+        if (jfrogLocalContent != null) {
+            jfrogLocalContent.setLocalProjectSupported(localProjectSupported);
+        }
+    }
+
     private void addContent(ContentManager contentManager, JFrogLocalToolWindow jfrogLocalContent, JFrogCiToolWindow jfrogBuildsContent) {
         ContentFactory contentFactory = ContentFactory.SERVICE.getInstance();
         Content localContent = contentFactory.createContent(jfrogLocalContent, "Local", false);
@@ -1,7 +1,6 @@
 package com.jfrog.ide.idea.ui;
 
 import com.intellij.openapi.components.ServiceManager;
-import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.util.messages.MessageBusConnection;
 import com.jfrog.ide.common.filter.FilterManager;
@@ -38,7 +37,7 @@ public class LocalComponentsTree extends ComponentsTree {
         DependencyTree filteredRoot = filterManager.applyFilters(project);
         filteredRoot.setIssues(filteredRoot.processTreeIssues());
         appendProjectWhenReady(filteredRoot);
-        DumbService.getInstance(this.project).smartInvokeLater(() -> ScanManagersFactory.getInstance(this.project).runInspectionsForAllScanManagers());
+        ScanManagersFactory.getInstance(this.project).runInspectionsForAllScanManagers();
     }
 
 }
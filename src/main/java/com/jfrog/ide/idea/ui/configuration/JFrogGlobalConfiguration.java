@@ -60,6 +60,8 @@ public class JFrogGlobalConfiguration implements Configurable, Configurable.NoSc
     private JBCheckBox connectionDetailsFromEnv;
     private ConnectionRetriesSpinner connectionRetries;
     private ConnectionTimeoutSpinner connectionTimeout;
+    private ScanConcurrencySpinner scanConcurrency;
+    private JBCheckBox scanAllPythonSdks;
 
     private JBTextField xrayUrl;
     private JBTextField artifactoryUrl;
@@ -235,6 +237,8 @@ public class JFrogGlobalConfiguration implements Configurable, Configurable.NoSc
                 .setConnectionDetailsFromEnv(connectionDetailsFromEnv.isSelected())
                 .setConnectionRetries(connectionRetries.getNumber())
                 .setConnectionTimeout(connectionTimeout.getNumber())
+                .setScanConcurrency(scanConcurrency.getNumber())
+                .setScanAllPythonSdks(scanAllPythonSdks.isSelected())
                 .build();
 
         return !serverConfig.equals(GlobalSettings.getInstance().getServerConfig());
@@ -295,6 +299,8 @@ public class JFrogGlobalConfiguration implements Configurable, Configurable.NoSc
             excludedPaths.setText(serverConfig.getExcludedPaths());
             connectionRetries.setValue(serverConfig.getConnectionRetries());
             connectionTimeout.setValue(serverConfig.getConnectionTimeout());
+            scanConcurrency.setValue(serverConfig.getScanConcurrency());
+            scanAllPythonSdks.setSelected(serverConfig.isScanAllPythonSdks());
             connectionDetailsFromEnv.setSelected(serverConfig.isConnectionDetailsFromEnv());
         } else {
             clearText(platformUrl, xrayUrl, artifactoryUrl, username, password);
@@ -302,6 +308,8 @@ public class JFrogGlobalConfiguration implements Configurable, Configurable.NoSc
             connectionDetailsFromEnv.setSelected(false);
             connectionRetries.setValue(ConnectionRetriesSpinner.RANGE.initial);
             connectionTimeout.setValue(ConnectionTimeoutSpinner.RANGE.initial);
+            scanConcurrency.setValue(ScanConcurrencySpinner.RANGE.initial);
+            scanAllPythonSdks.setSelected(false);
         }
     }
 
@@ -0,0 +1,13 @@
+package com.jfrog.ide.idea.ui.configuration;
+
+import com.intellij.ide.ui.UINumericRange;
+import com.intellij.ui.JBIntSpinner;
+
+public class ScanConcurrencySpinner extends JBIntSpinner {
+
+    public static final UINumericRange RANGE = new UINumericRange(4, 1, 16);
+
+    public ScanConcurrencySpinner() {
+        super(RANGE);
+    }
+}
@@ -22,6 +22,7 @@ public class ConfigurationTest extends LightJavaCodeInsightFixtureTestCase {
     private static final String EXCLUDED_PATHS = "**/*{ares}*";
     private static final int CONNECTION_TIMEOUT = 70;
     private static final int CONNECTION_RETRIES = 5;
+    private static final int SCAN_CONCURRENCY = 6;
     private static final String PASSWORD = "prince";
     private static final String USERNAME = "diana";
 
@@ -82,6 +83,8 @@ public class ConfigurationTest extends LightJavaCodeInsightFixtureTestCase {
         assertEquals(PASSWORD, actualServerConfig.getPassword());
         assertEquals(CONNECTION_RETRIES, actualServerConfig.getConnectionRetries());
         assertEquals(CONNECTION_TIMEOUT, actualServerConfig.getConnectionTimeout());
+        assertEquals(SCAN_CONCURRENCY, actualServerConfig.getScanConcurrency());
+        assertTrue(actualServerConfig.isScanAllPythonSdks());
         assertEquals(EXCLUDED_PATHS, actualServerConfig.getExcludedPaths());
     }
 
@@ -288,6 +291,8 @@ public class ConfigurationTest extends LightJavaCodeInsightFixtureTestCase {
                 .setPassword(PASSWORD)
                 .setConnectionRetries(CONNECTION_RETRIES)
                 .setConnectionTimeout(CONNECTION_TIMEOUT)
+                .setScanConcurrency(SCAN_CONCURRENCY)
+                .setScanAllPythonSdks(true)
                 .setExcludedPaths(EXCLUDED_PATHS)
                 .build();
     }
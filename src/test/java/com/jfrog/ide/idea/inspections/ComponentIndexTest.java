@@ -0,0 +1,67 @@
+package com.jfrog.ide.idea.inspections;
+
+import junit.framework.TestCase;
+import org.jfrog.build.extractor.scan.DependencyTree;
+import org.jfrog.build.extractor.scan.GeneralInfo;
+
+import java.util.List;
+
+public class ComponentIndexTest extends TestCase {
+
+    public void testSingleProject() {
+        DependencyTree root = createNode("my-app", new GeneralInfo().artifactId("my-app").path("/app"));
+        DependencyTree dependency = new DependencyTree("lodash:4.17.21");
+        root.add(dependency);
+        DependencyTree workspace = createNode("web", new GeneralInfo().artifactId("web").path("/app/packages/web"));
+        root.add(workspace);
+
+        ComponentIndex componentIndex = new ComponentIndex(root);
+        assertSame(root, componentIndex.getModuleByPath("/app"));
+        assertSame(root, componentIndex.getModuleByPath("/other"));
+        assertSame(workspace, componentIndex.getModuleByPath("/app/packages/web"));
+        assertSame(root, componentIndex.getProjectNode("any"));
+
+        String artifactId = new GeneralInfo().componentId("lodash:4.17.21").getArtifactId();
+        List<ComponentIndex.Match> matches = componentIndex.getNodeIndex(root).getDependencies(artifactId);
+        assertEquals(1, matches.size());
+        assertSame(dependency, matches.get(0).getNode());
+    }
+
+    public void testMultiProject() {
+        DependencyTree root = new DependencyTree();
+        DependencyTree project = createNode("project", new GeneralInfo().artifactId("project").path("/project"));
+        root.add(project);
+        DependencyTree module = createNode("module", new GeneralInfo().groupId("org.example").artifactId("module").path("/project/module"));
+        project.add(module);
+        DependencyTree direct = createNode("org.example:direct:1.0", new GeneralInfo().groupId("org.example").artifactId("direct").version("1.0"));
+        module.add(direct);
+        DependencyTree transitive = createNode("org.example:transitive:1.0", new GeneralInfo().groupId("org.example").artifactId("transitive").version("1.0"));
+        direct.add(transitive);
+
+        ComponentIndex componentIndex = new ComponentIndex(root);
+        assertSame(project, componentIndex.getModuleByPath("/project"));
+        assertSame(module, componentIndex.getModuleByPath("/project/module"));
+        assertNull(componentIndex.getModuleByPath("/other"));
+        assertSame(project, componentIndex.getProjectNode("project"));
+        assertSame(root, componentIndex.getProjectNode("other"));
+
+        ComponentIndex.NodeIndex projectIndex = componentIndex.getNodeIndex(project);
+        assertTrue(projectIndex.containsModule("module"));
+        assertFalse(projectIndex.containsModule("direct"));
+        // 'direct' is a dependency of 'module', which is a child of the project
+        List<ComponentIndex.Match> parents = projectIndex.getParents("direct");
+        assertEquals(1, parents.size());
+        assertSame(module, parents.get(0).getNode());
+        assertTrue(projectIndex.getParents("transitive").isEmpty());
+
+        ComponentIndex.NodeIndex moduleIndex = componentIndex.getNodeIndex(module);
+        assertSame(direct, moduleIndex.getDependencies("direct").get(0).getNode());
+        assertTrue(moduleIndex.getDependencies("transitive").isEmpty());
+    }
+
+    private static DependencyTree createNode(String name, GeneralInfo generalInfo) {
+        DependencyTree node = new DependencyTree(name);
+        node.setGeneralInfo(generalInfo);
+        return node;
+    }
+}
@@ -0,0 +1,159 @@
+package com.jfrog.ide.idea.scan;
+
+import com.google.common.collect.Sets;
+import junit.framework.TestCase;
+import org.jfrog.build.extractor.scan.DependencyTree;
+import org.jfrog.build.extractor.scan.Issue;
+import org.jfrog.build.extractor.scan.Scope;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.jfrog.ide.idea.TestUtils.getAndAssertChild;
+
+public class DependencyTreeDiffTest extends TestCase {
+
+    private final Issue issue = new Issue();
+
+    public void testIdenticalTrees() {
+        DependencyTree previous = createTree("b:c:1.0.0", "compile");
+        DependencyTree current = clearXrayInfo(createTree("b:c:1.0.0", "compile"));
+
+        List<DependencyTree> changedSubtrees = DependencyTreeDiff.reuseXrayInfo(previous, current);
+        assertTrue(changedSubtrees.isEmpty());
+        DependencyTree child = getAndAssertChild(current, "a:b:1.0.0");
+        assertEquals(Sets.newHashSet(issue), child.getIssues());
+        assertEquals(Sets.newHashSet(issue), getAndAssertChild(child, "b:c:1.0.0").getIssues());
+    }
+
+    public void testVersionChanged() {
+        DependencyTree previous = createTree("b:c:1.0.0", "compile");
+        DependencyTree current = clearXrayInfo(createTree("b:c:2.0.0", "compile"));
+
+        List<DependencyTree> changedSubtrees = DependencyTreeDiff.reuseXrayInfo(previous, current);
+        assertEquals(1, changedSubtrees.size());
+        assertEquals("b:c:2.0.0", changedSubtrees.get(0).getUserObject());
+        assertTrue(changedSubtrees.get(0).getIssues().isEmpty());
+
+        // The unchanged parent should keep its Xray info
+        assertEquals(Sets.newHashSet(issue), getAndAssertChild(current, "a:b:1.0.0").getIssues());
+    }
+
+    public void testScopeChanged() {
+        DependencyTree previous = createTree("b:c:1.0.0", "compile");
+        DependencyTree current = createTree("b:c:1.0.0", "test");
+
+        // The scope is set on the direct dependency, so its whole subtree is considered changed
+        List<DependencyTree> changedSubtrees = DependencyTreeDiff.reuseXrayInfo(previous, current);
+        assertEquals(1, changedSubtrees.size());
+        assertEquals("a:b:1.0.0", changedSubtrees.get(0).getUserObject());
+    }
+
+    public void testCopyTree() {
+        DependencyTree root = createTree("b:c:1.0.0", "compile");
+        DependencyTree copy = DependencyTreeDiff.copyTree(root);
+        DependencyTree copyChild = getAndAssertChild(copy, "a:b:1.0.0");
+        assertEquals(Sets.newHashSet(issue), copyChild.getIssues());
+
+        // Make sure the copy doesn't share state with the source tree
+        copyChild.getIssues().clear();
+        assertEquals(Sets.newHashSet(issue), getAndAssertChild(root, "a:b:1.0.0").getIssues());
+
+        // Copy Xray info back to a tree with the same structure
+        DependencyTreeDiff.copyXrayInfo(root, copy);
+        assertEquals(Sets.newHashSet(issue), copyChild.getIssues());
+    }
+
+    public void testFingerprint() {
+        DependencyTree tree = createTree("b:c:1.0.0", "compile");
+        long fingerprint = DependencyTreeDiff.fingerprint(tree, Collections.emptySet());
+        assertEquals(fingerprint, DependencyTreeDiff.fingerprint(createTree("b:c:1.0.0", "compile"), Collections.emptySet()));
+        assertTrue(fingerprint != DependencyTreeDiff.fingerprint(createTree("b:c:2.0.0", "compile"), Collections.emptySet()));
+        assertTrue(fingerprint != DependencyTreeDiff.fingerprint(createTree("b:c:1.0.0", "test"), Collections.emptySet()));
+
+        // Xray info changed
+        DependencyTree current = createTree("b:c:1.0.0", "compile");
+        getAndAssertChild(current, "a:b:1.0.0").getIssues().clear();
+        assertTrue(fingerprint != DependencyTreeDiff.fingerprint(current, Collections.emptySet()));
+
+        // Changes in excluded subtrees are ignored
+        DependencyTree excluded = getAndAssertChild(current, "a:b:1.0.0");
+        long excludedFingerprint = DependencyTreeDiff.fingerprint(current, Collections.singleton(excluded));
+        excluded.add(createNode("c:d:1.0.0"));
+        assertEquals(excludedFingerprint, DependencyTreeDiff.fingerprint(current, Collections.singleton(excluded)));
+    }
+
+    public void testMatchNodes() {
+        // The subtree of another descriptor is excluded, and its position changed in the republished tree
+        DependencyTree previous = createTree("b:c:1.0.0", "compile");
+        DependencyTree previousModule = createNode("x:y:1.0.0");
+        previous.insert(previousModule, 0);
+        DependencyTree current = createTree("b:c:1.0.0", "compile");
+        DependencyTree currentModule = createNode("x:y:1.0.0");
+        current.add(currentModule);
+
+        Map<DependencyTree, DependencyTree> matches = new IdentityHashMap<>();
+        DependencyTreeDiff.matchNodes(previous, Collections.singleton(previousModule), current,
+                Collections.singleton(currentModule), matches::put);
+        assertEquals(3, matches.size());
+        assertSame(current, matches.get(previous));
+        DependencyTree previousDirect = getAndAssertChild(previous, "a:b:1.0.0");
+        DependencyTree currentDirect = getAndAssertChild(current, "a:b:1.0.0");
+        assertSame(currentDirect, matches.get(previousDirect));
+        assertSame(getAndAssertChild(currentDirect, "b:c:1.0.0"), matches.get(getAndAssertChild(previousDirect, "b:c:1.0.0")));
+
+        // Nodes whose keys differ are not matched
+        matches.clear();
+        DependencyTreeDiff.matchNodes(createTree("b:c:1.0.0", "compile"), Collections.emptySet(),
+                createTree("b:c:2.0.0", "compile"), Collections.emptySet(), matches::put);
+        assertEquals(2, matches.size());
+    }
+
+    public void testForEachNode() {
+        DependencyTree tree = createTree("b:c:1.0.0", "compile");
+        DependencyTree direct = getAndAssertChild(tree, "a:b:1.0.0");
+        List<DependencyTree> nodes = new ArrayList<>();
+        DependencyTreeDiff.forEachNode(tree, Collections.emptySet(), nodes::add);
+        assertEquals(3, nodes.size());
+
+        nodes.clear();
+        DependencyTreeDiff.forEachNode(tree, Collections.singleton(direct), nodes::add);
+        assertEquals(Collections.singletonList(tree), nodes);
+    }
+
+    /**
+     * Create a tree of root -> a:b:1.0.0 -> transitive. All nodes but the root contain Xray info.
+     *
+     * @param transitive - The transitive dependency component ID
+     * @param scope      - The scope of the direct dependency
+     * @return the tree root.
+     */
+    private DependencyTree createTree(String transitive, String scope) {
+        DependencyTree root = new DependencyTree("root");
+        DependencyTree direct = createNode("a:b:1.0.0");
+        direct.setScopes(Sets.newHashSet(new Scope(scope)));
+        root.add(direct);
+        direct.add(createNode(transitive));
+        return root;
+    }
+
+    /**
+     * Remove the Xray info from all nodes, as in a newly built tree.
+     *
+     * @param root - The tree root
+     * @return the tree root.
+     */
+    private DependencyTree clearXrayInfo(DependencyTree root) {
+        DependencyTreeDiff.forEachNode(root, Collections.emptySet(), node -> node.getIssues().clear());
+        return root;
+    }
+
+    private DependencyTree createNode(String componentId) {
+        DependencyTree node = new DependencyTree(componentId);
+        node.setIssues(Sets.newHashSet(issue));
+        return node;
+    }
+}
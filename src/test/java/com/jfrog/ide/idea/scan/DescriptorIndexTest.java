@@ -0,0 +1,92 @@
+package com.jfrog.ide.idea.scan;
+
+import com.google.common.collect.Sets;
+import com.intellij.openapi.util.io.FileUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static com.jfrog.ide.idea.scan.DescriptorIndex.DescriptorType.GO;
+import static com.jfrog.ide.idea.scan.DescriptorIndex.DescriptorType.GRADLE;
+import static com.jfrog.ide.idea.scan.DescriptorIndex.DescriptorType.NPM;
+import static com.jfrog.ide.idea.ui.configuration.ExclusionsVerifier.DEFAULT_EXCLUSIONS;
+
+public class DescriptorIndexTest extends TempDirTestCase {
+
+    private DescriptorIndex descriptorIndex;
+    private Set<Path> paths;
+    private Path root;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        root = createTempDir("descriptor-index");
+        paths = Sets.newHashSet(root);
+        descriptorIndex = new DescriptorIndex();
+    }
+
+    public void testWalk() throws IOException {
+        createFile("a/package.json");
+        createFile("a/node_modules/b/package.json");
+        createFile("c/build.gradle.kts");
+        createFile("d/go.mod");
+
+        assertEquals(Sets.newHashSet(dir("a")), getDescriptorDirs(NPM));
+        assertEquals(Sets.newHashSet(dir("c")), getDescriptorDirs(GRADLE));
+        assertEquals(Sets.newHashSet(dir("d")), getDescriptorDirs(GO));
+    }
+
+    public void testVfsChanges() throws IOException {
+        createFile("a/package.json");
+        assertEquals(Sets.newHashSet(dir("a")), getDescriptorDirs(NPM));
+
+        // Create a descriptor
+        descriptorIndex.added(createFile("b/package.json").toString(), false);
+        // Create a directory with a descriptor
+        createFile("c/d/package.json");
+        descriptorIndex.added(root.resolve("c").toString(), true);
+        // Create a descriptor in an excluded directory
+        descriptorIndex.added(createFile("test/package.json").toString(), false);
+        assertEquals(Sets.newHashSet(dir("a"), dir("b"), dir("c/d")), getDescriptorDirs(NPM));
+
+        // Delete a descriptor
+        Path descriptor = root.resolve("a").resolve("package.json");
+        Files.delete(descriptor);
+        descriptorIndex.removed(descriptor.toString(), false);
+        // Delete a directory
+        FileUtil.delete(root.resolve("c").toFile());
+        descriptorIndex.removed(root.resolve("c").toString(), true);
+        assertEquals(Sets.newHashSet(dir("b")), getDescriptorDirs(NPM));
+    }
+
+    public void testExclusionsChanged() throws IOException {
+        createFile("test/package.json");
+        assertTrue(getDescriptorDirs(NPM).isEmpty());
+        assertEquals(Sets.newHashSet(dir("test")), descriptorIndex.getDescriptorDirs(paths, "**/*.idea*", NPM));
+    }
+
+    public void testInvalidate() throws IOException {
+        createFile("a/package.json");
+        assertEquals(Sets.newHashSet(dir("a")), getDescriptorDirs(NPM));
+
+        // A descriptor created without a VFS event
+        createFile("b/package.json");
+        assertEquals(Sets.newHashSet(dir("a")), getDescriptorDirs(NPM));
+        descriptorIndex.invalidate();
+        assertEquals(Sets.newHashSet(dir("a"), dir("b")), getDescriptorDirs(NPM));
+    }
+
+    private Set<String> getDescriptorDirs(DescriptorIndex.DescriptorType type) throws IOException {
+        return descriptorIndex.getDescriptorDirs(paths, DEFAULT_EXCLUSIONS, type);
+    }
+
+    private Path createFile(String relativePath) throws IOException {
+        return writeFile(root.resolve(relativePath), "");
+    }
+
+    private String dir(String relativePath) {
+        return root.resolve(relativePath).toString();
+    }
+}
@@ -0,0 +1,99 @@
+package com.jfrog.ide.idea.scan;
+
+import com.google.common.collect.ImmutableMap;
+import org.jfrog.build.extractor.scan.DependencyTree;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.jfrog.ide.idea.TestUtils.getAndAssertChild;
+
+public class GoModGraphReaderTest extends TempDirTestCase {
+
+    private Path projectDir;
+    private Path modCacheDir;
+    private GoModGraphReader reader;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        projectDir = createTempDir("go-project");
+        modCacheDir = createTempDir("go-mod-cache");
+        reader = new GoModGraphReader(projectDir, ImmutableMap.of("GOMODCACHE", modCacheDir.toString()));
+    }
+
+    public void testCompareVersions() {
+        assertTrue(GoModGraphReader.compareVersions("v1.10.0", "v1.9.0") > 0);
+        assertTrue(GoModGraphReader.compareVersions("v1.2.0", "v1.2.0-rc.1") > 0);
+        assertTrue(GoModGraphReader.compareVersions("v1.2.0-rc.2", "v1.2.0-rc.10") < 0);
+        assertTrue(GoModGraphReader.compareVersions("v0.0.0-20210101000000-abcdef123456", "v0.0.0-20200101000000-abcdef123456") > 0);
+        assertTrue(GoModGraphReader.compareVersions("v2.0.0+incompatible", "v1.9.9") > 0);
+        assertEquals(0, GoModGraphReader.compareVersions("v1.0.0", "v1.0.0"));
+    }
+
+    public void testEscapePath() {
+        assertEquals("github.com/!sirupsen/logrus", GoModGraphReader.escapePath("github.com/Sirupsen/logrus"));
+    }
+
+    public void testParseGoMod() {
+        GoModGraphReader.GoMod goMod = GoModGraphReader.GoMod.parse(Arrays.asList(
+                "module example.com/app // comment",
+                "go 1.16",
+                "require example.com/a v1.0.0",
+                "require (",
+                "\texample.com/b v1.1.0 // indirect",
+                ")",
+                "replace example.com/a => ../a",
+                "replace example.com/b v1.1.0 => example.com/fork v1.1.1"));
+        assertEquals("example.com/app", goMod.getModule());
+        assertEquals(2, goMod.getRequires().size());
+        assertEquals("example.com/b", goMod.getRequires().get(1).getPath());
+        assertEquals("v1.1.0", goMod.getRequires().get(1).getVersion());
+        assertEquals("../a", goMod.getReplacement(goMod.getRequires().get(0)));
+        assertEquals("example.com/fork@v1.1.1", goMod.getReplacement(goMod.getRequires().get(1)));
+        assertFalse(goMod.isPruned());
+    }
+
+    public void testMinimalVersionSelection() throws IOException {
+        writeFile(projectDir.resolve("go.mod"), "module example.com/app\n\ngo 1.16\n\nrequire (\n" +
+                "\texample.com/a v1.0.0\n\texample.com/b v1.1.0\n)\n");
+        writeFile(projectDir.resolve("go.sum"), "example.com/a v1.0.0 h1:a=\nexample.com/a v1.0.0/go.mod h1:a=\n" +
+                "example.com/b v1.1.0/go.mod h1:b=\nexample.com/b v1.2.0 h1:b=\nexample.com/b v1.2.0/go.mod h1:b=\n" +
+                "example.com/c v1.0.0 h1:c=\nexample.com/c v1.0.0/go.mod h1:c=\nexample.com/d v1.0.0/go.mod h1:d=\n");
+        writeGoMod("example.com/a", "v1.0.0", "module example.com/a\n\nrequire example.com/b v1.2.0\n");
+        writeGoMod("example.com/b", "v1.1.0", "module example.com/b\n");
+        writeGoMod("example.com/b", "v1.2.0", "module example.com/b\n\nrequire (\n" +
+                "\texample.com/c v1.0.0\n\texample.com/d v1.0.0\n)\n");
+        writeGoMod("example.com/c", "v1.0.0", "module example.com/c\n\nrequire example.com/b v1.2.0\n");
+        writeGoMod("example.com/d", "v1.0.0", "module example.com/d\n");
+
+        DependencyTree root = reader.buildTree();
+        assertEquals("example.com/app", root.getUserObject());
+        assertEquals(projectDir.toString(), root.getGeneralInfo().getPath());
+        assertEquals(2, root.getChildCount());
+        // The version required by example.com/a is selected, and every occurrence of example.com/b is expanded
+        DependencyTree a = getAndAssertChild(root, "example.com/a:1.0.0");
+        for (DependencyTree b : Arrays.asList(getAndAssertChild(root, "example.com/b:1.2.0"), getAndAssertChild(a, "example.com/b:1.2.0"))) {
+            // example.com/d is not used - Only its go.mod is in go.sum
+            assertEquals(1, b.getChildCount());
+            DependencyTree c = getAndAssertChild(b, "example.com/c:1.0.0");
+            // The cycle example.com/b -> example.com/c -> example.com/b is cut
+            assertTrue(getAndAssertChild(c, "example.com/b:1.2.0").isLeaf());
+        }
+    }
+
+    public void testMissingGoMod() throws IOException {
+        writeFile(projectDir.resolve("go.mod"), "module example.com/app\n\nrequire example.com/a v1.0.0\n");
+        try {
+            reader.buildTree();
+            fail("Expected IOException - The go.mod of example.com/a is not in the module cache");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    private void writeGoMod(String path, String version, String content) throws IOException {
+        writeFile(modCacheDir.resolve("cache/download").resolve(path).resolve("@v").resolve(version + ".mod"), content);
+    }
+}
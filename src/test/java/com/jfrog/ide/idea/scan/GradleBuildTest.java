@@ -0,0 +1,46 @@
+package com.jfrog.ide.idea.scan;
+
+import org.jfrog.build.extractor.scan.DependencyTree;
+import org.jfrog.build.extractor.scan.GeneralInfo;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class GradleBuildTest extends TempDirTestCase {
+
+    private Path rootDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        rootDir = createTempDir("gradle-build").toRealPath();
+        Files.createFile(rootDir.resolve("settings.gradle.kts"));
+        Files.createDirectories(rootDir.resolve("api").resolve("src"));
+        Files.createDirectories(rootDir.resolve("included"));
+        Files.createFile(rootDir.resolve("included").resolve("settings.gradle"));
+    }
+
+    public void testFindRootDir() {
+        assertEquals(rootDir, GradleBuild.findRootDir(rootDir));
+        assertEquals(rootDir, GradleBuild.findRootDir(rootDir.resolve("api")));
+        assertEquals(rootDir, GradleBuild.findRootDir(rootDir.resolve("api").resolve("src")));
+        // An included build has its own settings file
+        assertEquals(rootDir.resolve("included"), GradleBuild.findRootDir(rootDir.resolve("included")));
+    }
+
+    public void testGetProjectTree() {
+        DependencyTree buildTree = new DependencyTree("root");
+        DependencyTree api = new DependencyTree("api");
+        api.setGeneralInfo(new GeneralInfo().artifactId("api"));
+        buildTree.add(api);
+        DependencyTree core = new DependencyTree("core");
+        core.setGeneralInfo(new GeneralInfo().artifactId("core-lib").path(rootDir.resolve("core").toString()));
+        buildTree.add(core);
+
+        GradleBuild gradleBuild = new GradleBuild(rootDir);
+        assertSame(buildTree, gradleBuild.getProjectTree(buildTree, rootDir));
+        assertSame(api, gradleBuild.getProjectTree(buildTree, rootDir.resolve("api")));
+        assertSame(core, gradleBuild.getProjectTree(buildTree, rootDir.resolve("core")));
+        assertNull(gradleBuild.getProjectTree(buildTree, rootDir.resolve("web")));
+    }
+}
@@ -0,0 +1,67 @@
+package com.jfrog.ide.idea.scan;
+
+import com.google.common.collect.Sets;
+import org.jfrog.build.extractor.scan.DependencyTree;
+import org.jfrog.build.extractor.scan.Scope;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.jfrog.ide.idea.TestUtils.getAndAssertChild;
+
+public class GradleToolingTreeBuilderTest extends TempDirTestCase {
+
+    private Path outputDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        outputDir = createTempDir("jfrog-gradle-tree");
+    }
+
+    public void testCreateDependencyTree() throws IOException {
+        writeProject("root", "{\"name\":\"shop\",\"group\":\"org.acme\",\"version\":\"1.0\",\"path\":\"/work/shop\",\"dependencies\":[]}");
+        writeProject("_api", "{\"name\":\"api\",\"group\":\"org.acme\",\"version\":\"1.0\",\"path\":\"/work/shop/api\",\"dependencies\":[" +
+                "{\"id\":\"com.google.guava:guava:30.1-jre\",\"scopes\":[\"compileClasspath\",\"runtimeClasspath\"],\"children\":[" +
+                "{\"id\":\"com.google.guava:failureaccess:1.0.1\",\"children\":[]}]}]}");
+        Files.createFile(outputDir.resolve("init.gradle"));
+
+        List<GradleToolingTreeBuilder.ProjectNode> projects = GradleToolingTreeBuilder.readProjects(outputDir);
+        DependencyTree root = GradleToolingTreeBuilder.createDependencyTree(outputDir.resolve("shop"), projects);
+        assertEquals("shop", root.toString());
+        assertEquals(2, root.getChildCount());
+
+        DependencyTree api = getAndAssertChild(root, "api");
+        assertEquals("/work/shop/api", api.getGeneralInfo().getPath());
+        assertEquals("org.acme", api.getGeneralInfo().getGroupId());
+        DependencyTree guava = getAndAssertChild(api, "com.google.guava:guava:30.1-jre");
+        assertEquals(Sets.newHashSet("compileClasspath", "runtimeClasspath"),
+                guava.getScopes().stream().map(Scope::getName).collect(Collectors.toSet()));
+        assertEquals("guava", guava.getGeneralInfo().getArtifactId());
+        getAndAssertChild(guava, "com.google.guava:failureaccess:1.0.1");
+    }
+
+    public void testSingleProject() throws IOException {
+        writeProject("root", "{\"name\":\"app\",\"path\":\"/work/app\",\"dependencies\":[{\"id\":\"junit:junit:4.13\",\"scopes\":[\"testCompileClasspath\"]}]}");
+        DependencyTree root = GradleToolingTreeBuilder.createDependencyTree(outputDir, GradleToolingTreeBuilder.readProjects(outputDir));
+        assertEquals("app", root.toString());
+        assertEquals("/work/app", root.getGeneralInfo().getPath());
+        getAndAssertChild(root, "junit:junit:4.13");
+    }
+
+    public void testNoOutput() {
+        try {
+            GradleToolingTreeBuilder.readProjects(outputDir);
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    private void writeProject(String fileName, String json) throws IOException {
+        writeFile(outputDir.resolve(fileName + ".json"), json);
+    }
+}
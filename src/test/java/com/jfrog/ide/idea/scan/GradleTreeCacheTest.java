@@ -0,0 +1,97 @@
+package com.jfrog.ide.idea.scan;
+
+import org.jfrog.build.extractor.scan.DependencyTree;
+import org.jfrog.build.extractor.scan.GeneralInfo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static com.jfrog.ide.idea.TestUtils.getAndAssertChild;
+
+public class GradleTreeCacheTest extends TempDirTestCase {
+
+    private Path projectDir;
+    private Path cacheDir;
+    private GradleTreeCache treeCache;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        projectDir = createTempDir("gradle-project");
+        cacheDir = createTempDir("gradle-trees");
+        writeFile("settings.gradle", "include 'api'");
+        writeFile("build.gradle", "allprojects { repositories { mavenCentral() } }");
+        writeFile("api/build.gradle.kts", "dependencies { implementation(\"commons-io:commons-io:2.8.0\") }");
+        writeFile("gradle/libs.versions.toml", "[versions]");
+        writeFile("src/main/java/Main.java", "class Main {}");
+        treeCache = new GradleTreeCache(projectDir, cacheDir.resolve("tree.json.gz"));
+    }
+
+    public void testFingerprint() throws IOException {
+        String fingerprint = treeCache.getFingerprint();
+        assertEquals(fingerprint, treeCache.getFingerprint());
+
+        // Changes in sources and build outputs don't affect the dependencies
+        writeFile("src/main/java/Main.java", "class Main { }");
+        writeFile("build/tmp/build.gradle", "generated");
+        treeCache.invalidateFingerprint();
+        assertEquals(fingerprint, treeCache.getFingerprint());
+
+        // Changes in the build files
+        writeFile("api/build.gradle.kts", "dependencies { implementation(\"commons-io:commons-io:2.11.0\") }");
+        treeCache.invalidateFingerprint();
+        String modifiedFingerprint = treeCache.getFingerprint();
+        assertFalse(fingerprint.equals(modifiedFingerprint));
+        writeFile("gradle/libs.versions.toml", "[versions]\nguava = \"30.1-jre\"");
+        treeCache.invalidateFingerprint();
+        assertFalse(modifiedFingerprint.equals(treeCache.getFingerprint()));
+    }
+
+    public void testFileChanged() throws IOException {
+        String fingerprint = treeCache.getFingerprint();
+
+        // The build files are not read again until a change is reported
+        writeFile("build.gradle", "allprojects { repositories { jcenter() } }");
+        assertEquals(fingerprint, treeCache.getFingerprint());
+
+        // Changes in sources and build outputs are ignored
+        treeCache.fileChanged(projectDir.resolve("src/main/java/Main.java"), false);
+        treeCache.fileChanged(projectDir.resolve("build/tmp"), true);
+        treeCache.fileChanged(projectDir.resolve("build/tmp/build.gradle"), false);
+        assertEquals(fingerprint, treeCache.getFingerprint());
+
+        treeCache.fileChanged(projectDir.resolve("build.gradle"), false);
+        String modifiedFingerprint = treeCache.getFingerprint();
+        assertFalse(fingerprint.equals(modifiedFingerprint));
+
+        // A new directory may contain build files
+        writeFile("web/build.gradle", "apply plugin: 'java'");
+        treeCache.fileChanged(projectDir.resolve("web"), true);
+        assertFalse(modifiedFingerprint.equals(treeCache.getFingerprint()));
+    }
+
+    public void testSaveAndLoad() throws IOException {
+        String fingerprint = treeCache.getFingerprint();
+        assertNull(treeCache.load(fingerprint));
+
+        DependencyTree root = new DependencyTree("root");
+        root.setGeneralInfo(new GeneralInfo().artifactId("root").pkgType("gradle"));
+        root.add(new DependencyTree("commons-io:commons-io:2.8.0"));
+        treeCache.save(fingerprint, root);
+
+        DependencyTree cachedTree = treeCache.load(fingerprint);
+        assertNotNull(cachedTree);
+        assertEquals("root", cachedTree.toString());
+        assertEquals("gradle", cachedTree.getGeneralInfo().getPkgType());
+        getAndAssertChild(cachedTree, "commons-io:commons-io:2.8.0");
+
+        // The cached tree is not valid for other build files
+        writeFile("build.gradle", "allprojects { repositories { jcenter() } }");
+        treeCache.fileChanged(projectDir.resolve("build.gradle"), false);
+        assertNull(treeCache.load(treeCache.getFingerprint()));
+    }
+
+    private void writeFile(String relativePath, String content) throws IOException {
+        writeFile(projectDir.resolve(relativePath), content);
+    }
+}
@@ -0,0 +1,35 @@
+package com.jfrog.ide.idea.scan;
+
+import com.google.common.collect.Lists;
+import com.intellij.openapi.vfs.VirtualFile;
+import junit.framework.TestCase;
+import org.jetbrains.idea.maven.project.MavenProject;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MavenModulesIndexTest extends TestCase {
+
+    public void testCreateModulesIndex() {
+        MavenProject parent = createMavenProject("/project/pom.xml");
+        MavenProject module = createMavenProject("/project/module/pom.xml");
+        MavenProject duplicate = createMavenProject("/project/module/pom.xml");
+        MavenProject noPath = createMavenProject(null);
+
+        Map<String, MavenProject> modulesByPath = MavenScanManager.createModulesIndex(Lists.newArrayList(parent, module, duplicate, noPath));
+        assertEquals(2, modulesByPath.size());
+        assertSame(parent, modulesByPath.get("/project/pom.xml"));
+        assertSame(module, modulesByPath.get("/project/module/pom.xml"));
+        assertNull(modulesByPath.get("/project/other/pom.xml"));
+    }
+
+    private MavenProject createMavenProject(String canonicalPath) {
+        VirtualFile pom = mock(VirtualFile.class);
+        when(pom.getCanonicalPath()).thenReturn(canonicalPath);
+        MavenProject mavenProject = mock(MavenProject.class);
+        when(mavenProject.getFile()).thenReturn(pom);
+        return mavenProject;
+    }
+}
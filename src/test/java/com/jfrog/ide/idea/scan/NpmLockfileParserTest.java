@@ -0,0 +1,130 @@
+package com.jfrog.ide.idea.scan;
+
+import org.jfrog.build.extractor.scan.DependencyTree;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static com.jfrog.ide.idea.TestUtils.getAndAssertChild;
+
+public class NpmLockfileParserTest extends TempDirTestCase {
+
+    private static final String PACKAGE_JSON = "{\"name\": \"my-app\", \"version\": \"1.0.0\"," +
+            "\"dependencies\": {\"a\": \"^1.0.0\", \"c\": \"^1.0.0\"}, \"devDependencies\": {\"d\": \"^1.0.0\"}}";
+
+    private Path projectDir;
+    private NpmLockfileParser parser;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        projectDir = createTempDir("npm-project");
+        writeFile("package.json", PACKAGE_JSON);
+        parser = new NpmLockfileParser(projectDir);
+    }
+
+    public void testFindLockfile() throws IOException {
+        assertNull(parser.findLockfile());
+        writeFile("package-lock.json", "{}");
+        assertEquals(projectDir.resolve("package-lock.json"), parser.findLockfile());
+        writeFile("npm-shrinkwrap.json", "{}");
+        assertEquals(projectDir.resolve("npm-shrinkwrap.json"), parser.findLockfile());
+    }
+
+    public void testLockfileV1() throws IOException {
+        writeFile("package-lock.json", "{\"lockfileVersion\": 1, \"dependencies\": {" +
+                "\"a\": {\"version\": \"1.0.0\", \"requires\": {\"b\": \"^2.0.0\"}, \"dependencies\": {" +
+                "  \"b\": {\"version\": \"2.0.0\", \"requires\": {\"a\": \"^1.0.0\"}}}}," +
+                "\"b\": {\"version\": \"1.0.0\"}," +
+                "\"c\": {\"version\": \"1.0.0\", \"requires\": {\"b\": \"^1.0.0\"}}," +
+                "\"d\": {\"version\": \"1.0.0\", \"dev\": true}}}");
+        assertTree(parser.buildTree(parser.findLockfile()));
+    }
+
+    public void testLockfileV2() throws IOException {
+        writeFile("package-lock.json", "{\"lockfileVersion\": 2, \"packages\": {" +
+                "\"\": {\"name\": \"my-app\", \"version\": \"1.0.0\"}," +
+                "\"node_modules/a\": {\"version\": \"1.0.0\", \"dependencies\": {\"b\": \"^2.0.0\"}}," +
+                "\"node_modules/a/node_modules/b\": {\"version\": \"2.0.0\", \"dependencies\": {\"a\": \"^1.0.0\"}}," +
+                "\"node_modules/b\": {\"version\": \"1.0.0\"}," +
+                "\"node_modules/c\": {\"version\": \"1.0.0\", \"dependencies\": {\"b\": \"^1.0.0\"}}," +
+                "\"node_modules/d\": {\"version\": \"1.0.0\", \"dev\": true}}," +
+                "\"dependencies\": {\"a\": {\"version\": \"1.0.0\"}}}");
+        assertTree(parser.buildTree(parser.findLockfile()));
+    }
+
+    public void testLinkedPackage() throws IOException {
+        writeFile("package-lock.json", "{\"lockfileVersion\": 3, \"packages\": {" +
+                "\"node_modules/a\": {\"resolved\": \"libs/a\", \"link\": true}," +
+                "\"libs/a\": {\"version\": \"1.0.0\", \"dependencies\": {\"b\": \"^2.0.0\"}}," +
+                "\"libs/a/node_modules/b\": {\"version\": \"2.0.0\"}," +
+                "\"node_modules/b\": {\"version\": \"1.0.0\"}," +
+                "\"node_modules/c\": {\"version\": \"1.0.0\"}}}");
+        DependencyTree root = parser.buildTree(parser.findLockfile());
+        DependencyTree a = getAndAssertChild(root, "a:1.0.0");
+        getAndAssertChild(a, "b:2.0.0");
+        getAndAssertChild(root, "c:1.0.0");
+        // d is not installed
+        assertEquals(2, root.getChildCount());
+    }
+
+    public void testWorkspaces() throws IOException {
+        Files.createDirectories(projectDir.resolve("packages/web"));
+        writeFile("packages/web/package.json", "{\"name\": \"web\", \"version\": \"2.0.0\", \"dependencies\": {\"b\": \"^2.0.0\", \"c\": \"^1.0.0\"}}");
+        writeFile("package-lock.json", "{\"lockfileVersion\": 3, \"packages\": {" +
+                "\"packages/web\": {\"version\": \"2.0.0\", \"dependencies\": {\"b\": \"^2.0.0\"}}," +
+                "\"packages/web/node_modules/b\": {\"version\": \"2.0.0\"}," +
+                "\"node_modules/web\": {\"resolved\": \"packages/web\", \"link\": true}," +
+                "\"node_modules/a\": {\"version\": \"1.0.0\"}," +
+                "\"node_modules/c\": {\"version\": \"1.0.0\", \"dependencies\": {\"a\": \"^1.0.0\"}}}}");
+        DependencyTree root = parser.buildTree(parser.findLockfile(), Collections.singletonList(projectDir.resolve("packages/web")));
+        getAndAssertChild(root, "a:1.0.0");
+        DependencyTree c = getAndAssertChild(root, "c:1.0.0");
+        getAndAssertChild(c, "a:1.0.0");
+
+        DependencyTree web = getAndAssertChild(root, "web");
+        assertEquals(projectDir.resolve("packages/web").toString(), web.getGeneralInfo().getPath());
+        getAndAssertChild(web, "b:2.0.0");
+        // The hoisted c is expanded under the workspace too
+        getAndAssertChild(getAndAssertChild(web, "c:1.0.0"), "a:1.0.0");
+    }
+
+    public void testRepeatedDependency() throws IOException {
+        // a depends on c, which is also a direct dependency
+        writeFile("package-lock.json", "{\"lockfileVersion\": 2, \"packages\": {" +
+                "\"node_modules/a\": {\"version\": \"1.0.0\", \"dependencies\": {\"c\": \"^1.0.0\"}}," +
+                "\"node_modules/b\": {\"version\": \"1.0.0\"}," +
+                "\"node_modules/c\": {\"version\": \"1.0.0\", \"dependencies\": {\"b\": \"^1.0.0\"}}}}");
+        DependencyTree root = parser.buildTree(parser.findLockfile());
+        DependencyTree a = getAndAssertChild(root, "a:1.0.0");
+        getAndAssertChild(getAndAssertChild(a, "c:1.0.0"), "b:1.0.0");
+        // The direct dependency gets its full subtree, although c was already reached through a
+        getAndAssertChild(getAndAssertChild(root, "c:1.0.0"), "b:1.0.0");
+    }
+
+    private void assertTree(DependencyTree root) {
+        assertEquals("my-app", root.getUserObject());
+        assertEquals("1.0.0", root.getGeneralInfo().getVersion());
+        assertEquals(projectDir.toString(), root.getGeneralInfo().getPath());
+        assertEquals(3, root.getChildCount());
+
+        // The nested b@2.0.0 takes precedence over the hoisted b@1.0.0. The circular dependency on a is dropped.
+        DependencyTree a = getAndAssertChild(root, "a:1.0.0");
+        assertEquals(1, a.getChildCount());
+        DependencyTree nestedB = getAndAssertChild(a, "b:2.0.0");
+        assertTrue(nestedB.isLeaf());
+        assertEquals("production", a.getScopes().iterator().next().getName());
+
+        DependencyTree c = getAndAssertChild(root, "c:1.0.0");
+        getAndAssertChild(c, "b:1.0.0");
+
+        DependencyTree d = getAndAssertChild(root, "d:1.0.0");
+        assertEquals("development", d.getScopes().iterator().next().getName());
+    }
+
+    private void writeFile(String relativePath, String content) throws IOException {
+        writeFile(projectDir.resolve(relativePath), content);
+    }
+}
@@ -0,0 +1,88 @@
+package com.jfrog.ide.idea.scan;
+
+import com.google.common.collect.Sets;
+import org.jfrog.build.extractor.scan.DependencyTree;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.jfrog.ide.idea.TestUtils.getAndAssertChild;
+
+public class NpmWorkspacesTest extends TempDirTestCase {
+
+    private Path projectDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        projectDir = createTempDir("npm-workspaces");
+        writePackageJson("packages/web", "{}");
+        writePackageJson("packages/api", "{}");
+        writePackageJson("packages/legacy", "{}");
+        writePackageJson("packages/web/node_modules/dep", "{}");
+        writePackageJson("tools/cli", "{}");
+        writePackageJson("other", "{}");
+    }
+
+    public void testNpmWorkspaces() throws IOException {
+        writePackageJson("", "{\"workspaces\": [\"packages/*\", \"!packages/legacy\", \"./tools/cli\"]}");
+        assertEquals(Arrays.asList(projectDir.resolve("packages/api"), projectDir.resolve("packages/web"),
+                projectDir.resolve("tools/cli")), NpmWorkspaces.getWorkspaceDirs(projectDir));
+    }
+
+    public void testYarnWorkspaces() throws IOException {
+        writePackageJson("", "{\"workspaces\": {\"packages\": [\"tools/**\"], \"nohoist\": [\"**/react\"]}}");
+        assertEquals(Collections.singletonList(projectDir.resolve("tools/cli")), NpmWorkspaces.getWorkspaceDirs(projectDir));
+    }
+
+    public void testNoWorkspaces() throws IOException {
+        writePackageJson("", "{\"name\": \"my-app\"}");
+        assertTrue(NpmWorkspaces.getWorkspaceDirs(projectDir).isEmpty());
+    }
+
+    public void testGroupWorkspaces() throws IOException {
+        writePackageJson("", "{\"workspaces\": [\"packages/*\"]}");
+        // packages/api is excluded
+        Set<String> packageJsonDirs = Sets.newHashSet(projectDir.toString(), projectDir.resolve("packages/web").toString(),
+                projectDir.resolve("packages/legacy").toString(), projectDir.resolve("other").toString());
+        Map<String, List<Path>> projects = NpmWorkspaces.groupWorkspaces(packageJsonDirs);
+        assertEquals(Sets.newHashSet(projectDir.toString(), projectDir.resolve("other").toString()), projects.keySet());
+        assertEquals(Arrays.asList(projectDir.resolve("packages/legacy"), projectDir.resolve("packages/web")),
+                projects.get(projectDir.toString()));
+        assertTrue(projects.get(projectDir.resolve("other").toString()).isEmpty());
+    }
+
+    public void testGetPackageName() throws IOException {
+        writePackageJson("packages/api", "{\"name\": \"@my/api\"}");
+        assertEquals("@my/api", NpmWorkspaces.getPackageName(projectDir.resolve("packages/api")));
+        assertEquals("web", NpmWorkspaces.getPackageName(projectDir.resolve("packages/web")));
+    }
+
+    public void testAddWorkspaceTree() {
+        // Since npm 7, 'npm ls' at the workspaces root lists the workspaces
+        DependencyTree root = new DependencyTree("root");
+        root.add(new DependencyTree("@my/api:1.0.0"));
+        root.add(new DependencyTree("web:1.0.0"));
+        root.add(new DependencyTree("lodash:4.17.21"));
+
+        DependencyTree api = new DependencyTree("@my/api");
+        api.add(new DependencyTree("lodash:4.17.21"));
+        NpmWorkspaces.addWorkspaceTree(root, api, "@my/api");
+        DependencyTree web = new DependencyTree("web");
+        NpmWorkspaces.addWorkspaceTree(root, web, "web");
+
+        assertEquals(3, root.getChildCount());
+        getAndAssertChild(getAndAssertChild(root, "@my/api"), "lodash:4.17.21");
+        getAndAssertChild(root, "web");
+        getAndAssertChild(root, "lodash:4.17.21");
+    }
+
+    private void writePackageJson(String relativeDir, String content) throws IOException {
+        writeFile(projectDir.resolve(relativeDir).resolve("package.json"), content);
+    }
+}
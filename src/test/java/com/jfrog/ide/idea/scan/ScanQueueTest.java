@@ -0,0 +1,67 @@
+package com.jfrog.ide.idea.scan;
+
+import com.intellij.openapi.util.Pair;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+import static org.mockito.Mockito.mock;
+
+public class ScanQueueTest extends TestCase {
+
+    private ScanQueue queue;
+
+    @Override
+    public void setUp() {
+        queue = new ScanQueue();
+    }
+
+    public void testRoundRobinBetweenTypes() {
+        ScanManager npm1 = mock(NpmScanManager.class);
+        ScanManager npm2 = mock(NpmScanManager.class);
+        ScanManager npm3 = mock(NpmScanManager.class);
+        ScanManager go = mock(GoScanManager.class);
+        ScanManager gradle = mock(GradleScanManager.class);
+        queue.offer(npm1, true);
+        queue.offer(npm2, true);
+        queue.offer(npm3, true);
+        queue.offer(go, true);
+        queue.offer(gradle, true);
+        assertEquals(5, queue.size());
+
+        // The npm scan managers should not delay the Go and Gradle scan managers
+        ScanManager[] expected = {npm1, go, gradle, npm2, npm3};
+        for (ScanManager scanManager : expected) {
+            Assert.assertSame(scanManager, queue.poll().first);
+        }
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+    }
+
+    public void testOfferQueuedScanManager() {
+        ScanManager npm1 = mock(NpmScanManager.class);
+        ScanManager npm2 = mock(NpmScanManager.class);
+        queue.offer(npm1, true);
+        queue.offer(npm2, true);
+
+        // Offer again with a full scan request - The position should be kept and the full scan should win
+        queue.offer(npm1, false);
+        queue.offer(npm1, true);
+        assertEquals(2, queue.size());
+        assertTrue(queue.contains(npm1));
+
+        Pair<ScanManager, Boolean> next = queue.poll();
+        Assert.assertSame(npm1, next.first);
+        assertFalse(next.second);
+        next = queue.poll();
+        Assert.assertSame(npm2, next.first);
+        assertTrue(next.second);
+    }
+
+    public void testClear() {
+        queue.offer(mock(NpmScanManager.class), true);
+        queue.offer(mock(GoScanManager.class), false);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+    }
+}
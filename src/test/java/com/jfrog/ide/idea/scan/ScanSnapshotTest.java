@@ -0,0 +1,67 @@
+package com.jfrog.ide.idea.scan;
+
+import com.google.common.collect.Sets;
+import org.jfrog.build.extractor.scan.DependencyTree;
+import org.jfrog.build.extractor.scan.GeneralInfo;
+import org.jfrog.build.extractor.scan.Issue;
+import org.jfrog.build.extractor.scan.Scope;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+import static com.jfrog.ide.idea.TestUtils.getAndAssertChild;
+
+public class ScanSnapshotTest extends TempDirTestCase {
+
+    private Path tempDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        tempDir = createTempDir("scan-snapshot");
+    }
+
+    public void testExpiredSnapshot() throws IOException {
+        Path snapshotsDir = tempDir.resolve("snapshots");
+        Path expired = snapshotsDir.resolve("expired.json.gz");
+        Path recent = snapshotsDir.resolve("recent.json.gz");
+        ScanSnapshot.save(expired, new DependencyTree("expired"));
+        ScanSnapshot.save(recent, new DependencyTree("recent"));
+        long expiredTime = System.currentTimeMillis() - ScanSnapshot.MAX_AGE_MILLIS - TimeUnit.HOURS.toMillis(1);
+        Files.setLastModifiedTime(expired, FileTime.fromMillis(expiredTime));
+
+        assertNull(ScanSnapshot.load(expired));
+        ScanSnapshot.deleteExpired(snapshotsDir);
+        assertFalse(Files.exists(expired));
+        assertNotNull(ScanSnapshot.load(recent));
+    }
+
+    public void testSaveAndLoad() throws IOException {
+        DependencyTree root = new DependencyTree("root");
+        root.setGeneralInfo(new GeneralInfo().name("root").path("/path/to/root").pkgType("npm"));
+        DependencyTree direct = new DependencyTree("a:1.0.0");
+        direct.setScopes(Sets.newHashSet(new Scope("dev")));
+        direct.setIssues(Sets.newHashSet(new Issue()));
+        root.add(direct);
+        direct.add(new DependencyTree("b:2.0.0"));
+
+        Path snapshotPath = tempDir.resolve("snapshots").resolve("root.json.gz");
+        ScanSnapshot.save(snapshotPath, root);
+        DependencyTree loaded = ScanSnapshot.load(snapshotPath);
+
+        assertNotNull(loaded);
+        assertEquals("root", loaded.getUserObject());
+        assertEquals("/path/to/root", loaded.getGeneralInfo().getPath());
+        DependencyTree loadedDirect = getAndAssertChild(loaded, "a:1.0.0");
+        assertEquals(Sets.newHashSet("dev"), Sets.newHashSet(loadedDirect.getScopes().iterator().next().getName()));
+        assertEquals(1, loadedDirect.getIssues().size());
+        getAndAssertChild(loadedDirect, "b:2.0.0");
+    }
+
+    public void testLoadMissingSnapshot() throws IOException {
+        assertNull(ScanSnapshot.load(tempDir.resolve("missing.json.gz")));
+    }
+}
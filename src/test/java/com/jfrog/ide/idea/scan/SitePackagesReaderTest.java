@@ -0,0 +1,97 @@
+package com.jfrog.ide.idea.scan;
+
+import com.google.common.collect.Lists;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class SitePackagesReaderTest extends TempDirTestCase {
+
+    private Path sitePackages;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        sitePackages = createTempDir("site-packages");
+        writeFile("requests-2.25.1.dist-info/METADATA",
+                "Metadata-Version: 2.1",
+                "Name: requests",
+                "Version: 2.25.1",
+                "Requires-Dist: chardet (<5,>=3.0.2)",
+                "Requires-Dist: idna (<3,>=2.5)",
+                "Requires-Dist: urllib3 (<1.27,>=1.21.1)",
+                "Requires-Dist: pyOpenSSL (>=0.14) ; extra == 'security'",
+                "Requires-Dist: win-inet-pton ; (sys_platform == \"win32\" and python_version == \"2.7\") and extra == 'socks'",
+                "Requires-Dist: enum34 ; python_version < \"3.4\"",
+                "",
+                "Requires-Dist: not-a-header");
+        writeFile("PyYAML-5.4.1.egg-info/PKG-INFO",
+                "Metadata-Version: 1.1",
+                "Name: PyYAML",
+                "Version: 5.4.1");
+        writeFile("PyYAML-5.4.1.egg-info/requires.txt",
+                "six",
+                "",
+                "[:python_version < \"3\"]",
+                "futures",
+                "",
+                "[:python_version >= \"3\"]",
+                "typing_extensions>=3.7",
+                "",
+                "[docs]",
+                "sphinx");
+        writeFile("legacy-1.0.egg-info",
+                "Metadata-Version: 1.0",
+                "Name: legacy",
+                "Version: 1.0");
+        Files.createDirectories(sitePackages.resolve("broken-1.0.dist-info"));
+    }
+
+    public void testReadPackages() throws IOException {
+        List<PythonPackage> packages = new SitePackagesReader("Python 3.8.5").readPackages(Lists.newArrayList(sitePackages));
+        Map<String, PythonPackage> packagesByName = packages.stream()
+                .collect(Collectors.toMap(PythonPackage::getName, Function.identity()));
+        assertEquals(3, packagesByName.size());
+
+        PythonPackage requests = packagesByName.get("requests");
+        assertEquals("2.25.1", requests.getVersion());
+        assertTrue(requests.isInstalled());
+        assertEquals(Lists.newArrayList("chardet", "idna", "urllib3"), requests.getRequirements());
+
+        PythonPackage pyYaml = packagesByName.get("PyYAML");
+        assertEquals("5.4.1", pyYaml.getVersion());
+        assertEquals(Lists.newArrayList("six", "typing_extensions"), pyYaml.getRequirements());
+
+        PythonPackage legacy = packagesByName.get("legacy");
+        assertEquals("1.0", legacy.getVersion());
+        assertTrue(legacy.getRequirements().isEmpty());
+    }
+
+    public void testMarkers() {
+        Pep508Markers markers = new Pep508Markers(Pep508Markers.createEnvironment("3.8.5"));
+        assertTrue(markers.evaluate(""));
+        assertTrue(markers.evaluate("python_version >= \"3.6\""));
+        assertTrue(markers.evaluate("python_version == '3.8' and python_full_version ~= '3.8.0'"));
+        assertFalse(markers.evaluate("python_version < \"3.8\""));
+        assertFalse(markers.evaluate("extra == 'socks'"));
+        assertTrue(markers.evaluate("(python_version < '3' or python_version >= '3.7') and extra != 'socks'"));
+        assertTrue(markers.evaluate("'linux' in 'linux darwin' or os_name not in 'nt posix'"));
+        // Unknown markers keep the requirement
+        assertTrue(markers.evaluate("unknown_marker == '1'"));
+    }
+
+    public void testNormalizeName() {
+        assertEquals("ruamel-yaml", PythonPackage.normalizeName("ruamel.yaml"));
+        assertEquals("ruamel-yaml", PythonPackage.normalizeName("Ruamel_Yaml"));
+        assertEquals("zope-interface", PythonPackage.normalizeName("zope.-interface"));
+    }
+
+    private void writeFile(String relativePath, String... lines) throws IOException {
+        writeFile(sitePackages.resolve(relativePath), String.join("\n", lines) + "\n");
+    }
+}
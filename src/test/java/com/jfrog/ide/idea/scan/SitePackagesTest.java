@@ -0,0 +1,48 @@
+package com.jfrog.ide.idea.scan;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+public class SitePackagesTest extends TempDirTestCase {
+
+    private Path sitePackages;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        sitePackages = createTempDir("site-packages");
+        Files.createDirectories(sitePackages.resolve("six-1.15.0.dist-info"));
+        Files.createDirectories(sitePackages.resolve("six"));
+        Files.createFile(sitePackages.resolve("legacy-1.0.egg-info"));
+    }
+
+    public void testGetMetadataDirs() throws IOException {
+        List<Path> metadataDirs = SitePackages.getMetadataDirs(Lists.newArrayList(sitePackages));
+        assertEquals(Sets.newHashSet(sitePackages.resolve("six-1.15.0.dist-info"), sitePackages.resolve("legacy-1.0.egg-info")),
+                Sets.newHashSet(metadataDirs));
+    }
+
+    public void testGetFingerprint() throws IOException {
+        List<Path> sitePackagesDirs = Lists.newArrayList(sitePackages);
+        assertNull(SitePackages.getFingerprint(Lists.newArrayList()));
+        String fingerprint = SitePackages.getFingerprint(sitePackagesDirs);
+        assertNotNull(fingerprint);
+        assertEquals(fingerprint, SitePackages.getFingerprint(sitePackagesDirs));
+
+        // Upgrade a package
+        Path metadataDir = sitePackages.resolve("six-1.15.0.dist-info");
+        Files.setLastModifiedTime(metadataDir, FileTime.fromMillis(Files.getLastModifiedTime(metadataDir).toMillis() + 1000));
+        String upgradedFingerprint = SitePackages.getFingerprint(sitePackagesDirs);
+        assertFalse(fingerprint.equals(upgradedFingerprint));
+
+        // Install a package
+        Files.createDirectories(sitePackages.resolve("urllib3-1.26.4.dist-info"));
+        assertFalse(upgradedFingerprint.equals(SitePackages.getFingerprint(sitePackagesDirs)));
+    }
+}
@@ -0,0 +1,56 @@
+package com.jfrog.ide.idea.scan;
+
+import com.intellij.openapi.util.io.FileUtil;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base class of the scan tests reading project files from the disk.
+ * The temporary directories created by the test are deleted after it.
+ */
+public abstract class TempDirTestCase extends TestCase {
+
+    private final List<Path> tempDirs = new ArrayList<>();
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            tempDirs.forEach(tempDir -> FileUtil.delete(tempDir.toFile()));
+            tempDirs.clear();
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    /**
+     * Create a temporary directory, deleted after the test.
+     *
+     * @param prefix - The prefix of the directory name
+     * @return the directory.
+     * @throws IOException in case of an error while creating the directory.
+     */
+    protected Path createTempDir(String prefix) throws IOException {
+        Path tempDir = Files.createTempDirectory(prefix);
+        tempDirs.add(tempDir);
+        return tempDir;
+    }
+
+    /**
+     * Write a UTF-8 file, creating its parent directories.
+     *
+     * @param path    - The file to write
+     * @param content - The file content
+     * @return the file.
+     * @throws IOException in case of an error while writing the file.
+     */
+    protected static Path writeFile(Path path, String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        return Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}